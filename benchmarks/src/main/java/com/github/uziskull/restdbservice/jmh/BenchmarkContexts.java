@@ -0,0 +1,51 @@
+package com.github.uziskull.restdbservice.jmh;
+
+import com.github.uziskull.restdbservice.RestDbServiceApplication;
+import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
+import com.github.uziskull.restdbservice.service.DeviceService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BenchmarkContexts {
+    static final int BRANDS = 100;
+    private static final int SEED_CHUNK = 10_000;
+
+    private BenchmarkContexts() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        List<String> allProperties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "logging.level.root=warn"));
+        allProperties.addAll(List.of(properties));
+        return new SpringApplicationBuilder(RestDbServiceApplication.class)
+                .properties(allProperties.toArray(String[]::new))
+                .logStartupInfo(false)
+                .run();
+    }
+
+    static DeviceRequest deviceRequest(String name, String brand) {
+        DeviceRequest deviceRequest = new DeviceRequest();
+        deviceRequest.setName(name);
+        deviceRequest.setBrand(brand);
+        return deviceRequest;
+    }
+
+    static String brand(int i) {
+        return "Brand" + (i % BRANDS);
+    }
+
+    static void seed(DeviceService deviceService, int rows) {
+        for (int from = 0; from < rows; from += SEED_CHUNK) {
+            List<DeviceRequest> deviceRequests = new ArrayList<>(SEED_CHUNK);
+            for (int i = from; i < Math.min(from + SEED_CHUNK, rows); i++) {
+                deviceRequests.add(deviceRequest("device" + i, brand(i)));
+            }
+            deviceService.addDevices(deviceRequests);
+        }
+    }
+}
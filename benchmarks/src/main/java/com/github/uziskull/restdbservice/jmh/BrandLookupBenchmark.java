@@ -0,0 +1,147 @@
+package com.github.uziskull.restdbservice.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BrandLookupBenchmark {
+    private static final int BRANDS = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    private static final String CREATE_TABLE = """
+            create table device (
+                id uuid not null primary key,
+                name varchar(255) not null,
+                brand varchar(255) not null,
+                brand_normalized varchar(255) not null,
+                created_at timestamp(6) with time zone,
+                constraint uk_device_name_brand unique (name, brand)
+            )""";
+    private static final String CREATE_BRAND_INDEXES = """
+            create index idx_device_brand on device (brand, created_at, id);
+            create index idx_device_brand_normalized on device (brand_normalized)""";
+
+    private static final String EXACT_QUERY = "select * from device where brand = ? order by created_at, id limit "
+            + PAGE_SIZE;
+    private static final String IGNORE_CASE_BEFORE_QUERY = "select * from device where lower(brand) = ? limit "
+            + PAGE_SIZE;
+    private static final String IGNORE_CASE_AFTER_QUERY = "select * from device where brand_normalized = ? limit "
+            + PAGE_SIZE;
+    private static final String PREFIX_BEFORE_QUERY = "select * from device where lower(brand) like ? limit "
+            + PAGE_SIZE;
+    private static final String PREFIX_AFTER_QUERY = "select * from device where brand_normalized like ? limit "
+            + PAGE_SIZE;
+
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private Connection connection;
+    private PreparedStatement exact;
+    private PreparedStatement ignoreCase;
+    private PreparedStatement prefix;
+    private int lookup;
+
+    private static String brand(int i) {
+        return "Brand" + (i % BRANDS);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:brandLookupBenchmark" + UUID.randomUUID());
+        populate();
+        if (indexed) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_BRAND_INDEXES);
+            }
+            requireIndex(EXACT_QUERY, "IDX_DEVICE_BRAND");
+            requireIndex(IGNORE_CASE_AFTER_QUERY, "IDX_DEVICE_BRAND_NORMALIZED");
+        }
+        exact = connection.prepareStatement(EXACT_QUERY);
+        ignoreCase = connection.prepareStatement(indexed ? IGNORE_CASE_AFTER_QUERY : IGNORE_CASE_BEFORE_QUERY);
+        prefix = connection.prepareStatement(indexed ? PREFIX_AFTER_QUERY : PREFIX_BEFORE_QUERY);
+    }
+
+    private void populate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("insert into device values (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setObject(1, UUID.randomUUID());
+                insert.setString(2, "device" + i);
+                insert.setString(3, brand(i));
+                insert.setString(4, brand(i).toLowerCase(Locale.ROOT));
+                insert.setObject(5, Instant.now());
+                insert.addBatch();
+                if (i % 10_000 == 9_999) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+    }
+
+    private void requireIndex(String query, String index) throws SQLException {
+        try (PreparedStatement explain = connection.prepareStatement("explain " + query)) {
+            explain.setString(1, brand(0));
+            try (ResultSet resultSet = explain.executeQuery()) {
+                resultSet.next();
+                if (!resultSet.getString(1).contains(index)) {
+                    throw new IllegalStateException(query + " does not use " + index);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private static void select(PreparedStatement select, String parameter, Blackhole blackhole) throws SQLException {
+        select.setString(1, parameter);
+        try (ResultSet resultSet = select.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getObject(1));
+            }
+        }
+    }
+
+    private String nextBrand() {
+        lookup = (lookup + 7) % BRANDS;
+        return brand(lookup);
+    }
+
+    @Benchmark
+    public void exact(Blackhole blackhole) throws SQLException {
+        select(exact, nextBrand(), blackhole);
+    }
+
+    @Benchmark
+    public void ignoreCase(Blackhole blackhole) throws SQLException {
+        select(ignoreCase, nextBrand().toLowerCase(Locale.ROOT), blackhole);
+    }
+
+    @Benchmark
+    public void prefix(Blackhole blackhole) throws SQLException {
+        select(prefix, nextBrand().toLowerCase(Locale.ROOT) + "%", blackhole);
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.uziskull.restdbservice.jmh;
+
+import com.github.uziskull.restdbservice.model.dao.id.DeviceIdStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceIdInsertBenchmark {
+    private static final int BATCH_SIZE = 1_000;
+
+    private static final String CREATE_TABLE = """
+            create table device (
+                id uuid not null primary key,
+                name varchar(255) not null,
+                brand varchar(255) not null,
+                created_at timestamp(6) with time zone
+            )""";
+
+    @Param({"RANDOM", "TIME_ORDERED"})
+    public DeviceIdStrategy strategy;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private int inserted;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:deviceIdInsertBenchmark" + UUID.randomUUID());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("insert into device values (?, ?, ?, ?)");
+        inserted = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++, inserted++) {
+            insert.setObject(1, strategy.nextId());
+            insert.setString(2, "device" + inserted);
+            insert.setString(3, "brand" + inserted % 1_000);
+            insert.setObject(4, Instant.now());
+            insert.addBatch();
+        }
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts;
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.uziskull.restdbservice.jmh;
+
+import com.github.uziskull.restdbservice.model.dto.CursorPage;
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.service.DeviceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceListingBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private DeviceService deviceService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("devices.cache.enabled=false");
+        deviceService = context.getBean(DeviceService.class);
+        BenchmarkContexts.seed(deviceService, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<DeviceResponse> pagedFirstPage() {
+        return deviceService.listAllDevices(PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Page<DeviceResponse> pagedMiddlePage() {
+        return deviceService.listAllDevices(PageRequest.of(rows / PAGE_SIZE / 2, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Slice<DeviceResponse> slicedFirstPage() {
+        return deviceService.sliceAllDevices(PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public CursorPage<DeviceResponse> cursorFirstPage() {
+        return deviceService.scrollAllDevices(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<DeviceResponse> brandFirstPage() {
+        return deviceService.searchDeviceByBrand(BenchmarkContexts.brand(0), PageRequest.of(0, PAGE_SIZE));
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.uziskull.restdbservice.jmh;
+
+import com.github.uziskull.restdbservice.cache.DeviceSnapshot;
+import com.github.uziskull.restdbservice.model.dao.DeviceDAO;
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceMappingBenchmark {
+    private DeviceDAO deviceDAO;
+    private DeviceSnapshot deviceSnapshot;
+
+    @Setup
+    public void setUp() {
+        deviceDAO = new DeviceDAO();
+        deviceDAO.setId(UUID.randomUUID());
+        deviceDAO.setName("deviceName");
+        deviceDAO.setBrand("deviceBrand");
+        deviceDAO.setCreationTimestamp(Instant.now());
+        deviceDAO.setVersion(0L);
+        deviceSnapshot = DeviceSnapshot.fromDAO(deviceDAO);
+    }
+
+    @Benchmark
+    public DeviceResponse responseFromDAO() {
+        return DeviceResponse.fromDAO(deviceDAO);
+    }
+
+    @Benchmark
+    public DeviceResponse responseFromSnapshot() {
+        return deviceSnapshot.toResponse();
+    }
+
+    @Benchmark
+    public DeviceSnapshot snapshotFromDAO() {
+        return DeviceSnapshot.fromDAO(deviceDAO);
+    }
+}
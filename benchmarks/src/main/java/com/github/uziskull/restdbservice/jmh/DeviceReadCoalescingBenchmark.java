@@ -0,0 +1,63 @@
+package com.github.uziskull.restdbservice.jmh;
+
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.service.DeviceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many threads reading the same few devices and brand pages with the device cache off, as after an invalidation,
+ * with and without concurrent identical reads being coalesced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class DeviceReadCoalescingBenchmark {
+    private static final int ROWS = 10_000;
+    private static final int HOT_DEVICES = 4;
+    private static final Pageable BRAND_PAGE = PageRequest.of(0, 20);
+
+    @Param({"true", "false"})
+    public boolean coalescing;
+
+    private ConfigurableApplicationContext context;
+    private DeviceService deviceService;
+    private List<UUID> hotIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("devices.cache.enabled=false", "devices.coalescing.enabled=" + coalescing);
+        deviceService = context.getBean(DeviceService.class);
+        BenchmarkContexts.seed(deviceService, ROWS);
+        hotIds = deviceService.sliceAllDevices(Pageable.ofSize(HOT_DEVICES)).stream()
+                .map(DeviceResponse::getId)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DeviceResponse getHotDevice() {
+        return deviceService.getDeviceByIdentifier(hotIds.get(ThreadLocalRandom.current().nextInt(HOT_DEVICES)));
+    }
+
+    @Benchmark
+    public Page<DeviceResponse> getHotBrandPage() {
+        return deviceService.searchDeviceByBrand(BenchmarkContexts.brand(0), BRAND_PAGE);
+    }
+}
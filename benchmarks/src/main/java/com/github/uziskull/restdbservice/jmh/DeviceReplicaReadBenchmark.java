@@ -0,0 +1,80 @@
+package com.github.uziskull.restdbservice.jmh;
+
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.service.DeviceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uncached reads with and without a read replica (a second in-memory H2 holding a copy of the primary), measuring
+ * the cost of routing them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceReplicaReadBenchmark {
+    private static final int ROWS = 10_000;
+    private static final String REPLICA_URL = "jdbc:h2:mem:benchmark-replica;DB_CLOSE_DELAY=-1";
+    private static final Pageable BRAND_PAGE = PageRequest.of(0, 20);
+
+    @Param({"false", "true"})
+    public boolean replica;
+
+    private ConfigurableApplicationContext context;
+    private DeviceService deviceService;
+    private List<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = replica ?
+                BenchmarkContexts.start("devices.cache.enabled=false",
+                        "devices.replicas.datasources[0].url=" + REPLICA_URL,
+                        "devices.replicas.datasources[0].username=admin",
+                        "devices.replicas.datasources[0].password=admin") :
+                BenchmarkContexts.start("devices.cache.enabled=false");
+        deviceService = context.getBean(DeviceService.class);
+        BenchmarkContexts.seed(deviceService, ROWS);
+        ids = deviceService.sliceAllDevices(Pageable.ofSize(ROWS)).stream()
+                .map(DeviceResponse::getId)
+                .toList();
+        if (replica) {
+            File script = File.createTempFile("benchmark-replica", ".sql");
+            script.deleteOnExit();
+            new JdbcTemplate(context.getBean(DataSource.class)).execute("script to '" + script + "'");
+            new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "admin", "admin"))
+                    .execute("runscript from '" + script + "'");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DeviceResponse getById() {
+        return deviceService.getDeviceByIdentifier(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public Page<DeviceResponse> getBrandPage() {
+        return deviceService.searchDeviceByBrand(
+                BenchmarkContexts.brand(ThreadLocalRandom.current().nextInt(BenchmarkContexts.BRANDS)), BRAND_PAGE);
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.uziskull.restdbservice.jmh;
+
+import com.github.uziskull.restdbservice.controller.DeviceController;
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.service.DeviceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.hateoas.MediaTypes;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceRepresentationBenchmark {
+    private static final int ROWS = 1_000;
+
+    @Param({"hal", "plain"})
+    public String format;
+
+    @Param({"true", "false"})
+    public boolean responseCache;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUri;
+    private String accept;
+    private List<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("devices.cache.response.enabled=" + responseCache);
+        DeviceService deviceService = context.getBean(DeviceService.class);
+        BenchmarkContexts.seed(deviceService, ROWS);
+        ids = deviceService.sliceAllDevices(Pageable.ofSize(ROWS)).stream()
+                .map(DeviceResponse::getId)
+                .toList();
+        httpClient = HttpClient.newHttpClient();
+        baseUri = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/devices";
+        accept = "plain".equals(format) ? DeviceController.PLAIN_JSON_VALUE : MediaTypes.HAL_JSON_VALUE;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        context.close();
+    }
+
+    private byte[] get(String uri) throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(URI.create(uri)).header("Accept", accept).build(),
+                HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Benchmark
+    public byte[] getById() throws IOException, InterruptedException {
+        return get(baseUri + "/" + ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public byte[] getMissingById() throws IOException, InterruptedException {
+        return get(baseUri + "/" + UUID.randomUUID());
+    }
+
+    @Benchmark
+    public byte[] brandPage() throws IOException, InterruptedException {
+        return get(baseUri + "/brand/" + BenchmarkContexts.brand(ThreadLocalRandom.current().nextInt(ROWS))
+                + "?size=20");
+    }
+
+    @Benchmark
+    public byte[] listPage() throws IOException, InterruptedException {
+        return get(baseUri + "?count=false&size=100&page=" + ThreadLocalRandom.current().nextInt(ROWS / 100));
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.uziskull.restdbservice.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.EvoInflectorLinkRelationProvider;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceSerializationBenchmark {
+    private ObjectMapper plainMapper;
+    private ObjectMapper halMapper;
+    private DeviceResponse deviceResponse;
+    private DeviceResponse linkedDeviceResponse;
+
+    @Setup
+    public void setUp() {
+        plainMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        halMapper = plainMapper.copy()
+                .registerModule(new Jackson2HalModule());
+        halMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new EvoInflectorLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+
+        deviceResponse = new DeviceResponse();
+        deviceResponse.setId(UUID.randomUUID());
+        deviceResponse.setName("deviceName");
+        deviceResponse.setBrand("deviceBrand");
+        deviceResponse.setCreationTimestamp(Instant.now());
+        linkedDeviceResponse = new DeviceResponse();
+        linkedDeviceResponse.setId(deviceResponse.getId());
+        linkedDeviceResponse.setName(deviceResponse.getName());
+        linkedDeviceResponse.setBrand(deviceResponse.getBrand());
+        linkedDeviceResponse.setCreationTimestamp(deviceResponse.getCreationTimestamp());
+        linkedDeviceResponse.add(Link.of("http://localhost:8080/api/v1/devices/" + deviceResponse.getId()));
+    }
+
+    @Benchmark
+    public byte[] withoutLinks() throws JsonProcessingException {
+        return plainMapper.writeValueAsBytes(deviceResponse);
+    }
+
+    @Benchmark
+    public byte[] withHalLinks() throws JsonProcessingException {
+        return halMapper.writeValueAsBytes(linkedDeviceResponse);
+    }
+}
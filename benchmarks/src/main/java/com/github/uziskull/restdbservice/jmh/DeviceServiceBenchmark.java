@@ -0,0 +1,103 @@
+package com.github.uziskull.restdbservice.jmh;
+
+import com.github.uziskull.restdbservice.model.dto.DeviceLookupResult;
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.service.DeviceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceServiceBenchmark {
+    private static final int ROWS = 10_000;
+    private static final int BATCH_SIZE = 200;
+    private static final int HOT_ROWS = 100;
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private final AtomicLong counter = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private DeviceService deviceService;
+    private List<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("devices.cache.enabled=" + cacheEnabled);
+        deviceService = context.getBean(DeviceService.class);
+        BenchmarkContexts.seed(deviceService, ROWS);
+        ids = deviceService.sliceAllDevices(Pageable.ofSize(ROWS)).stream()
+                .map(DeviceResponse::getId)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private UUID randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    @Benchmark
+    public DeviceResponse getById() {
+        return deviceService.getDeviceByIdentifier(randomId());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<DeviceResponse> getByIdOneByOne() {
+        List<DeviceResponse> deviceResponses = new ArrayList<>(BATCH_SIZE);
+        for (UUID id : randomIds()) {
+            deviceResponses.add(deviceService.getDeviceByIdentifier(id));
+        }
+        return deviceResponses;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public DeviceLookupResult lookup() {
+        return deviceService.lookupDevices(randomIds());
+    }
+
+    private List<UUID> randomIds() {
+        return ThreadLocalRandom.current().ints(BATCH_SIZE, 0, ids.size())
+                .mapToObj(ids::get)
+                .toList();
+    }
+
+    @Benchmark
+    public DeviceResponse update() {
+        return deviceService.updateDevice(randomId(),
+                BenchmarkContexts.deviceRequest("updated" + counter.incrementAndGet(), null));
+    }
+
+    // Updates a few devices over and over, so that their snapshots stay cached
+    @Benchmark
+    public DeviceResponse updateHot() {
+        return deviceService.updateDevice(ids.get(ThreadLocalRandom.current().nextInt(HOT_ROWS)),
+                BenchmarkContexts.deviceRequest("updated" + counter.incrementAndGet(), null));
+    }
+
+    @Benchmark
+    public DeviceResponse createAndDelete() {
+        long i = counter.incrementAndGet();
+        DeviceResponse deviceResponse = deviceService.addDevice(
+                BenchmarkContexts.deviceRequest("created" + i, BenchmarkContexts.brand((int) i)));
+        deviceService.deleteDevice(deviceResponse.getId());
+        return deviceResponse;
+    }
+}
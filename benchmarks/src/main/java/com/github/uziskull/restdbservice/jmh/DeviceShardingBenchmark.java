@@ -0,0 +1,77 @@
+package com.github.uziskull.restdbservice.jmh;
+
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.service.DeviceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uncached reads on a single database against devices spread over several in-memory H2 shards: reads by identifier
+ * go to one shard, while listings query every shard and merge their results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceShardingBenchmark {
+    private static final int ROWS = 10_000;
+    private static final Pageable BRAND_PAGE = PageRequest.of(0, 20);
+    private static final Pageable DEEP_PAGE = PageRequest.of(10, 20, Sort.by("name"));
+
+    @Param({"1", "4"})
+    public int shards;
+
+    private ConfigurableApplicationContext context;
+    private DeviceService deviceService;
+    private List<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> properties = new ArrayList<>(List.of("devices.cache.enabled=false"));
+        for (int shard = 1; shard < shards; shard++) {
+            String prefix = "devices.sharding.datasources[" + (shard - 1) + "].";
+            properties.add(prefix + "url=jdbc:h2:mem:benchmark-shard-" + shard + ";DB_CLOSE_DELAY=-1");
+            properties.add(prefix + "username=admin");
+            properties.add(prefix + "password=admin");
+        }
+        context = BenchmarkContexts.start(properties.toArray(String[]::new));
+        deviceService = context.getBean(DeviceService.class);
+        BenchmarkContexts.seed(deviceService, ROWS);
+        ids = deviceService.sliceAllDevices(Pageable.ofSize(ROWS)).stream()
+                .map(DeviceResponse::getId)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DeviceResponse getById() {
+        return deviceService.getDeviceByIdentifier(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public Page<DeviceResponse> getBrandPage() {
+        return deviceService.searchDeviceByBrand(
+                BenchmarkContexts.brand(ThreadLocalRandom.current().nextInt(BenchmarkContexts.BRANDS)), BRAND_PAGE);
+    }
+
+    @Benchmark
+    public Page<DeviceResponse> getDeepPage() {
+        return deviceService.listAllDevices(DEEP_PAGE);
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.uziskull.restdbservice.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.uziskull.restdbservice.config.WireFormatConfig;
+import com.github.uziskull.restdbservice.controller.DeviceController;
+import com.github.uziskull.restdbservice.controller.format.DeviceProtobufHttpMessageConverter;
+import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
+import com.github.uziskull.restdbservice.model.dto.PlainDeviceResponse;
+import com.github.uziskull.restdbservice.model.dto.PlainPage;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Encodes and decodes the plain device DTOs with the converters the service registers, without the HTTP stack, so
+ * the difference between the wire formats is not drowned by request handling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceWireFormatBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"json", "cbor", "protobuf"})
+    public String format;
+
+    private AbstractHttpMessageConverter<Object> converter;
+    private MediaType mediaType;
+    private ObjectMapper clientMapper;
+    private PlainDeviceResponse device;
+    private PlainPage<PlainDeviceResponse> page;
+    private byte[] encodedRequest;
+    private byte[] encodedPage;
+
+    @Setup
+    public void setUp() throws IOException {
+        switch (format) {
+            case "json" -> {
+                MappingJackson2HttpMessageConverter jsonConverter =
+                        new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+                converter = jsonConverter;
+                clientMapper = jsonConverter.getObjectMapper();
+                mediaType = MediaType.parseMediaType(DeviceController.PLAIN_JSON_VALUE);
+            }
+            case "cbor" -> {
+                var cborConverter = WireFormatConfig.cborConverter(Jackson2ObjectMapperBuilder.json());
+                converter = cborConverter;
+                clientMapper = cborConverter.getObjectMapper();
+                mediaType = MediaType.APPLICATION_CBOR;
+            }
+            default -> {
+                converter = new DeviceProtobufHttpMessageConverter();
+                mediaType = MediaType.parseMediaType(DeviceProtobufHttpMessageConverter.PROTOBUF_VALUE);
+            }
+        }
+
+        device = newDevice(0);
+        page = PlainPage.<PlainDeviceResponse>builder()
+                .content(IntStream.range(0, PAGE_SIZE).mapToObj(DeviceWireFormatBenchmark::newDevice).toList())
+                .page(PlainPage.Metadata.builder().size(PAGE_SIZE).number(3).hasNext(true).build())
+                .build();
+        DeviceRequest deviceRequest = new DeviceRequest();
+        deviceRequest.setName(device.getName());
+        deviceRequest.setBrand(device.getBrand());
+        encodedRequest = "protobuf".equals(format)
+                ? UnknownFieldSet.newBuilder()
+                        .mergeLengthDelimitedField(1, ByteString.copyFromUtf8(device.getName()))
+                        .mergeLengthDelimitedField(2, ByteString.copyFromUtf8(device.getBrand()))
+                        .build().toByteArray()
+                : clientMapper.writeValueAsBytes(deviceRequest);
+        encodedPage = writePage();
+        System.out.printf("%n%s: device %d bytes, page of %d devices %d bytes%n",
+                format, writeDevice().length, PAGE_SIZE, encodedPage.length);
+    }
+
+    private static PlainDeviceResponse newDevice(int i) {
+        PlainDeviceResponse device = new PlainDeviceResponse();
+        device.setId(UUID.randomUUID());
+        device.setName("deviceName" + i);
+        device.setBrand("deviceBrand");
+        device.setCreationTimestamp(Instant.now());
+        device.setSelf("/api/v1/devices/" + device.getId());
+        return device;
+    }
+
+    private byte[] write(Object value) throws IOException {
+        OutputMessage outputMessage = new OutputMessage();
+        converter.write(value, mediaType, outputMessage);
+        return outputMessage.body.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] writeDevice() throws IOException {
+        return write(device);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws IOException {
+        return write(page);
+    }
+
+    @Benchmark
+    public Object readRequest() throws IOException {
+        return converter.read(DeviceRequest.class, new InputMessage(encodedRequest, mediaType));
+    }
+
+    @Benchmark
+    public Object readPageOnClient() throws IOException {
+        return clientMapper == null ? UnknownFieldSet.parseFrom(encodedPage) : clientMapper.readTree(encodedPage);
+    }
+
+    private static final class OutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    private record InputMessage(byte[] content, MediaType mediaType) implements HttpInputMessage {
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(mediaType);
+            return headers;
+        }
+    }
+}
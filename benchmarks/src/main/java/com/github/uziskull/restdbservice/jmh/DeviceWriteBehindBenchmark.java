@@ -0,0 +1,70 @@
+package com.github.uziskull.restdbservice.jmh;
+
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.model.dto.DeviceWriteStatus;
+import com.github.uziskull.restdbservice.service.DeviceService;
+import com.github.uziskull.restdbservice.service.DeviceWriteBehindService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Devices created one by one against devices queued for write-behind, measured until all of them are written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceWriteBehindBenchmark {
+    private static final int DEVICES = 1_000;
+
+    private final AtomicLong counter = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private DeviceService deviceService;
+    private DeviceWriteBehindService writeBehindService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start();
+        deviceService = context.getBean(DeviceService.class);
+        writeBehindService = context.getBean(DeviceWriteBehindService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEVICES)
+    public DeviceResponse createOneByOne() {
+        DeviceResponse deviceResponse = null;
+        for (int i = 0; i < DEVICES; i++) {
+            long n = counter.incrementAndGet();
+            deviceResponse = deviceService.addDevice(
+                    BenchmarkContexts.deviceRequest("device" + n, BenchmarkContexts.brand((int) n)));
+        }
+        return deviceResponse;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEVICES)
+    public DeviceWriteStatus createWriteBehind() throws InterruptedException {
+        UUID lastId = null;
+        for (int i = 0; i < DEVICES; i++) {
+            long n = counter.incrementAndGet();
+            lastId = writeBehindService.enqueue(
+                    BenchmarkContexts.deviceRequest("device" + n, BenchmarkContexts.brand((int) n))).getId();
+        }
+        DeviceWriteStatus status;
+        while ((status = writeBehindService.getWriteStatus(lastId)).getStatus() == DeviceWriteStatus.Status.PENDING) {
+            Thread.sleep(1);
+        }
+        return status;
+    }
+}
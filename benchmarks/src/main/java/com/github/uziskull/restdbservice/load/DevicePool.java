@@ -0,0 +1,37 @@
+package com.github.uziskull.restdbservice.load;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.random.RandomGenerator;
+
+class DevicePool {
+    private final AtomicReferenceArray<UUID> slots;
+
+    DevicePool(int size) {
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    void add(RandomGenerator random, UUID id) {
+        slots.set(random.nextInt(slots.length()), id);
+    }
+
+    UUID peek(RandomGenerator random) {
+        for (int attempt = 0; attempt < 8; attempt++) {
+            UUID id = slots.get(random.nextInt(slots.length()));
+            if (id != null) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    UUID take(RandomGenerator random) {
+        for (int attempt = 0; attempt < 8; attempt++) {
+            UUID id = slots.getAndSet(random.nextInt(slots.length()), null);
+            if (id != null) {
+                return id;
+            }
+        }
+        return null;
+    }
+}
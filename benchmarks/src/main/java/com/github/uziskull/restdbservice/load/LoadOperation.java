@@ -0,0 +1,9 @@
+package com.github.uziskull.restdbservice.load;
+
+public enum LoadOperation {
+    CREATE,
+    GET,
+    UPDATE,
+    DELETE,
+    LIST_BY_BRAND
+}
@@ -0,0 +1,60 @@
+package com.github.uziskull.restdbservice.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public record LoadOptions(int concurrency, Duration warmup, Duration duration, int seedDevices, int brands,
+                          long randomSeed, Map<LoadOperation, Integer> mix, String output, String label) {
+
+    private static final String DEFAULT_MIX = "create=10,get=60,update=10,delete=5,list_by_brand=15";
+
+    public static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return new LoadOptions(
+                Integer.parseInt(values.getOrDefault("concurrency", "16")),
+                Duration.parse("PT" + values.getOrDefault("warmup", "10s")),
+                Duration.parse("PT" + values.getOrDefault("duration", "30s")),
+                Integer.parseInt(values.getOrDefault("seed-devices", "10000")),
+                Integer.parseInt(values.getOrDefault("brands", "100")),
+                Long.parseLong(values.getOrDefault("random-seed", "42")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                values.getOrDefault("output", "load-result.json"),
+                values.getOrDefault("label", ""));
+    }
+
+    private static Map<LoadOperation, Integer> parseMix(String mix) {
+        Map<LoadOperation, Integer> ratios = new EnumMap<>(LoadOperation.class);
+        for (String entry : mix.split(",")) {
+            String[] ratio = entry.split("=");
+            ratios.put(LoadOperation.valueOf(ratio[0].trim().toUpperCase(Locale.ROOT)),
+                    Integer.parseInt(ratio[1].trim()));
+        }
+        if (ratios.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("The operation mix must have a positive total: " + mix);
+        }
+        return ratios;
+    }
+
+    public LoadOperation pick(int roll) {
+        for (Map.Entry<LoadOperation, Integer> ratio : mix.entrySet()) {
+            roll -= ratio.getValue();
+            if (roll < 0) {
+                return ratio.getKey();
+            }
+        }
+        throw new IllegalStateException("Roll outside of the operation mix");
+    }
+
+    public int mixTotal() {
+        return mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,236 @@
+package com.github.uziskull.restdbservice.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.uziskull.restdbservice.jmh.BenchmarkContexts;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+public class LoadTest {
+    private static final String DEVICES_PATH = "/api/v1/devices";
+    private static final int SEED_CHUNK = 1000;
+    private static final long HIGHEST_TRACKABLE_MICROS = 60_000_000;
+
+    private final LoadOptions options;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final DevicePool devicePool;
+    private final AtomicLong nameCounter = new AtomicLong();
+    private final Map<LoadOperation, Recorder> recorders = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation, Map<Integer, LongAdder>> statuses = new EnumMap<>(LoadOperation.class);
+    private volatile boolean running = true;
+
+    public LoadTest(LoadOptions options, URI baseUri, ObjectMapper objectMapper) {
+        this.options = options;
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.devicePool = new DevicePool(options.seedDevices());
+        for (LoadOperation operation : LoadOperation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            statuses.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        try (ConfigurableApplicationContext context = BenchmarkContexts.start()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            ObjectMapper objectMapper = JsonMapper.builder()
+                    .addModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                    .enable(SerializationFeature.INDENT_OUTPUT)
+                    .build();
+            LoadTest loadTest = new LoadTest(options, URI.create("http://localhost:" + port + DEVICES_PATH),
+                    objectMapper);
+            loadTest.seed();
+            ObjectNode report = loadTest.run();
+            objectMapper.writeValue(new File(options.output()), report);
+            System.out.println("Results written to " + options.output());
+        }
+    }
+
+    private String nextName() {
+        return "load-" + nameCounter.incrementAndGet();
+    }
+
+    private String brand(RandomGenerator random) {
+        return "Brand" + random.nextInt(options.brands());
+    }
+
+    private String deviceJson(String name, String brand) {
+        ObjectNode device = objectMapper.createObjectNode().put("name", name);
+        if (brand != null) {
+            device.put("brand", brand);
+        }
+        return device.toString();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUri + path))
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.Builder jsonRequest(String path) {
+        return request(path).header("Content-Type", "application/json");
+    }
+
+    public void seed() throws IOException, InterruptedException {
+        RandomGenerator random = new SplittableRandom(options.randomSeed());
+        for (int from = 0; from < options.seedDevices(); from += SEED_CHUNK) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = from; i < Math.min(from + SEED_CHUNK, options.seedDevices()); i++) {
+                body.append(i == from ? "" : ",").append(deviceJson(nextName(), brand(random)));
+            }
+            HttpResponse<String> response = httpClient.send(jsonRequest("/bulk")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.append(']').toString()))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode());
+            }
+            for (JsonNode result : objectMapper.readTree(response.body())) {
+                devicePool.add(random, UUID.fromString(result.get("device").get("id").asText()));
+            }
+        }
+    }
+
+    private HttpRequest toRequest(LoadOperation operation, RandomGenerator random, UUID id) {
+        return switch (operation) {
+            case CREATE -> jsonRequest("")
+                    .POST(HttpRequest.BodyPublishers.ofString(deviceJson(nextName(), brand(random))))
+                    .build();
+            case GET -> request("/" + id).GET().build();
+            case UPDATE -> jsonRequest("/" + id)
+                    .PUT(HttpRequest.BodyPublishers.ofString(deviceJson(nextName(), null)))
+                    .build();
+            case DELETE -> request("/" + id).DELETE().build();
+            case LIST_BY_BRAND -> request("/brand/" + brand(random) + "?size=20").GET().build();
+        };
+    }
+
+    private void work(int worker) {
+        RandomGenerator random = new SplittableRandom(options.randomSeed() + worker + 1);
+        while (running) {
+            LoadOperation operation = options.pick(random.nextInt(options.mixTotal()));
+            UUID id = switch (operation) {
+                case GET, UPDATE -> devicePool.peek(random);
+                case DELETE -> devicePool.take(random);
+                case CREATE, LIST_BY_BRAND -> null;
+            };
+            if (id == null && operation != LoadOperation.CREATE && operation != LoadOperation.LIST_BY_BRAND) {
+                continue;
+            }
+            HttpRequest request = toRequest(operation, random, id);
+            long start = System.nanoTime();
+            int status;
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                status = response.statusCode();
+                if (operation == LoadOperation.CREATE && status == 201) {
+                    response.headers().firstValue("Location").ifPresent(location ->
+                            devicePool.add(random, UUID.fromString(location.substring(location.lastIndexOf('/') + 1))));
+                }
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            recorders.get(operation).recordValue(Math.min((System.nanoTime() - start) / 1000,
+                    HIGHEST_TRACKABLE_MICROS));
+            statuses.get(operation).computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+    }
+
+    public ObjectNode run() throws InterruptedException {
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < options.concurrency(); i++) {
+            int worker = i;
+            workers.add(Thread.ofVirtual().name("load-worker-" + i).start(() -> work(worker)));
+        }
+        Thread.sleep(options.warmup().toMillis());
+        recorders.values().forEach(Recorder::reset);
+        statuses.values().forEach(Map::clear);
+        long start = System.nanoTime();
+        Thread.sleep(options.duration().toMillis());
+        running = false;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return report(seconds);
+    }
+
+    private ObjectNode report(double seconds) {
+        ObjectNode report = objectMapper.createObjectNode()
+                .put("label", options.label())
+                .put("timestamp", Instant.now().toString())
+                .put("javaVersion", System.getProperty("java.version"))
+                .put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.set("options", objectMapper.valueToTree(options));
+        ObjectNode operations = report.putObject("operations");
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        System.out.printf("%-14s %10s %10s %10s %10s %10s %10s %8s%n",
+                "operation", "count", "ops/s", "p50 us", "p99 us", "p999 us", "max us", "errors");
+        for (LoadOperation operation : LoadOperation.values()) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            total.add(histogram);
+            long errors = statuses.get(operation).entrySet().stream()
+                    .filter(status -> status.getKey() < 200 || status.getKey() >= 300)
+                    .mapToLong(status -> status.getValue().sum())
+                    .sum();
+            ObjectNode result = summary(histogram, seconds).put("errors", errors);
+            ObjectNode statusCounts = result.putObject("statuses");
+            statuses.get(operation).forEach((status, count) -> statusCounts.put(String.valueOf(status), count.sum()));
+            operations.set(operation.name(), result);
+            print(operation.name(), histogram, seconds, errors);
+        }
+        report.set("total", summary(total, seconds));
+        print("TOTAL", total, seconds, -1);
+        return report;
+    }
+
+    private ObjectNode summary(Histogram histogram, double seconds) {
+        ObjectNode summary = objectMapper.createObjectNode()
+                .put("count", histogram.getTotalCount())
+                .put("throughputPerSecond", histogram.getTotalCount() / seconds);
+        summary.putObject("latencyMicros")
+                .put("mean", histogram.getMean())
+                .put("p50", histogram.getValueAtPercentile(50))
+                .put("p90", histogram.getValueAtPercentile(90))
+                .put("p99", histogram.getValueAtPercentile(99))
+                .put("p999", histogram.getValueAtPercentile(99.9))
+                .put("max", histogram.getMaxValue());
+        return summary;
+    }
+
+    private static void print(String name, Histogram histogram, double seconds, long errors) {
+        System.out.printf("%-14s %10d %10.1f %10d %10d %10d %10d %8s%n", name, histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds, histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9), histogram.getMaxValue(),
+                errors < 0 ? "" : String.valueOf(errors));
+    }
+}
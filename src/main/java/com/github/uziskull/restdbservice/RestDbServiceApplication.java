@@ -2,8 +2,10 @@ package com.github.uziskull.restdbservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class RestDbServiceApplication {
 
 	public static void main(String[] args) {
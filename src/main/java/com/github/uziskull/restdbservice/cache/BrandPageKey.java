@@ -0,0 +1,10 @@
+package com.github.uziskull.restdbservice.cache;
+
+import org.springframework.data.domain.Pageable;
+
+public record BrandPageKey(String brand, int pageNumber, int pageSize, String sort) {
+
+    public static BrandPageKey of(String brand, Pageable pageable) {
+        return new BrandPageKey(brand, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+    }
+}
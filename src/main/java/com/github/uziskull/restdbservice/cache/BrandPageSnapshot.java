@@ -0,0 +1,6 @@
+package com.github.uziskull.restdbservice.cache;
+
+import java.util.List;
+
+public record BrandPageSnapshot(List<DeviceSnapshot> content, long totalElements) {
+}
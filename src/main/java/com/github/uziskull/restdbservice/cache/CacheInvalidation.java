@@ -0,0 +1,24 @@
+package com.github.uziskull.restdbservice.cache;
+
+import java.util.UUID;
+
+public record CacheInvalidation(String originNode, Type type, UUID deviceId, String brand) {
+
+    public static CacheInvalidation device(String originNode, UUID deviceId) {
+        return new CacheInvalidation(originNode, Type.DEVICE, deviceId, null);
+    }
+
+    public static CacheInvalidation brand(String originNode, String brand) {
+        return new CacheInvalidation(originNode, Type.BRAND, null, brand);
+    }
+
+    public static CacheInvalidation allBrands(String originNode) {
+        return new CacheInvalidation(originNode, Type.ALL_BRANDS, null, null);
+    }
+
+    public enum Type {
+        DEVICE,
+        BRAND,
+        ALL_BRANDS
+    }
+}
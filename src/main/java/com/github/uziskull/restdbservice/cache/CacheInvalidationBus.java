@@ -0,0 +1,9 @@
+package com.github.uziskull.restdbservice.cache;
+
+import java.util.function.Consumer;
+
+public interface CacheInvalidationBus {
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> subscriber);
+}
@@ -0,0 +1,170 @@
+package com.github.uziskull.restdbservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+@Component
+public class DeviceCache implements MeterBinder {
+    private static final String CACHE_NAME = "devices";
+    private static final String BRAND_PAGE_CACHE_NAME = "device-brand-pages";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final boolean enabled;
+    private final Cache<UUID, Optional<DeviceSnapshot>> cache;
+    private final Cache<BrandPageKey, BrandPageSnapshot> brandPageCache;
+    private final SharedDeviceCache sharedCache;
+    private final CacheInvalidationBus invalidationBus;
+
+    public DeviceCache(DeviceProperties deviceProperties, SharedDeviceCache sharedCache,
+                       CacheInvalidationBus invalidationBus) {
+        DeviceProperties.Cache cacheProperties = deviceProperties.getCache();
+        this.enabled = cacheProperties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(enabled ? cacheProperties.getMaximumSize() : 0)
+                .expireAfter(new SnapshotExpiry(cacheProperties.getTtl().toNanos(),
+                        cacheProperties.getNegativeTtl().toNanos()))
+                .recordStats()
+                .build();
+        this.brandPageCache = Caffeine.newBuilder()
+                .maximumSize(enabled ? cacheProperties.getBrandPageMaximumSize() : 0)
+                .expireAfterWrite(cacheProperties.getBrandPageTtl())
+                .recordStats()
+                .build();
+        this.sharedCache = sharedCache;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    public Optional<DeviceSnapshot> get(@NonNull UUID id, @NonNull Function<UUID, Optional<DeviceSnapshot>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        return cache.get(id, key -> sharedCache.getDevice(key).or(() -> {
+            Optional<DeviceSnapshot> deviceSnapshot = loader.apply(key);
+            deviceSnapshot.ifPresent(sharedCache::putDevice);
+            return deviceSnapshot;
+        }));
+    }
+
+    public Optional<DeviceSnapshot> getIfPresent(@NonNull UUID id) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Optional<DeviceSnapshot> cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<DeviceSnapshot> shared = sharedCache.getDevice(id);
+        shared.ifPresent(deviceSnapshot -> cache.put(id, shared));
+        return shared;
+    }
+
+    public BrandPageSnapshot getBrandPage(@NonNull BrandPageKey key,
+                                          @NonNull Function<BrandPageKey, BrandPageSnapshot> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+        return brandPageCache.get(key, pageKey -> sharedCache.getBrandPage(pageKey).orElseGet(() -> {
+            BrandPageSnapshot brandPageSnapshot = loader.apply(pageKey);
+            sharedCache.putBrandPage(pageKey, brandPageSnapshot);
+            return brandPageSnapshot;
+        }));
+    }
+
+    /**
+     * Caches a device read from the database. Unlike {@link #put}, which records a write, other nodes keep their
+     * copies.
+     */
+    public void fill(@NonNull DeviceSnapshot deviceSnapshot) {
+        if (!enabled) {
+            return;
+        }
+        cache.put(deviceSnapshot.id(), Optional.of(deviceSnapshot));
+        sharedCache.putDevice(deviceSnapshot);
+    }
+
+    public void put(@NonNull DeviceSnapshot deviceSnapshot) {
+        if (!enabled) {
+            return;
+        }
+        cache.put(deviceSnapshot.id(), Optional.of(deviceSnapshot));
+        sharedCache.putDevice(deviceSnapshot);
+        invalidationBus.publish(CacheInvalidation.device(nodeId, deviceSnapshot.id()));
+    }
+
+    public void evict(@NonNull UUID id) {
+        cache.invalidate(id);
+        sharedCache.evictDevice(id);
+        invalidationBus.publish(CacheInvalidation.device(nodeId, id));
+    }
+
+    public void evictBrand(@NonNull String brand) {
+        evictLocalBrand(brand);
+        sharedCache.evictBrand(brand);
+        invalidationBus.publish(CacheInvalidation.brand(nodeId, brand));
+    }
+
+    public void evictAllBrands() {
+        brandPageCache.invalidateAll();
+        sharedCache.evictAllBrands();
+        invalidationBus.publish(CacheInvalidation.allBrands(nodeId));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+        brandPageCache.invalidateAll();
+    }
+
+    private void evictLocalBrand(String brand) {
+        brandPageCache.asMap().keySet().removeIf(key -> key.brand().equals(brand));
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.originNode())) {
+            return;
+        }
+        switch (invalidation.type()) {
+            case DEVICE -> cache.invalidate(invalidation.deviceId());
+            case BRAND -> evictLocalBrand(invalidation.brand());
+            case ALL_BRANDS -> brandPageCache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        CaffeineCacheMetrics.monitor(registry, brandPageCache, BRAND_PAGE_CACHE_NAME);
+    }
+
+    private record SnapshotExpiry(long ttlNanos, long negativeTtlNanos)
+            implements Expiry<UUID, Optional<DeviceSnapshot>> {
+
+        @Override
+        public long expireAfterCreate(UUID id, Optional<DeviceSnapshot> device, long currentTime) {
+            return device.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID id, Optional<DeviceSnapshot> device, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(id, device, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID id, Optional<DeviceSnapshot> device, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
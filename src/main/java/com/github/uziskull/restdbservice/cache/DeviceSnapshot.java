@@ -0,0 +1,39 @@
+package com.github.uziskull.restdbservice.cache;
+
+import com.github.uziskull.restdbservice.model.dao.DeviceDAO;
+import com.github.uziskull.restdbservice.model.dao.ReactiveDeviceDAO;
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record DeviceSnapshot(UUID id, String name, String brand, Instant creationTimestamp, Long version) {
+
+    public static DeviceSnapshot fromDAO(DeviceDAO deviceDAO) {
+        return new DeviceSnapshot(deviceDAO.getId(), deviceDAO.getName(), deviceDAO.getBrand(),
+                deviceDAO.getCreationTimestamp(), deviceDAO.getVersion());
+    }
+
+    public static DeviceSnapshot fromDAO(ReactiveDeviceDAO deviceDAO) {
+        return new DeviceSnapshot(deviceDAO.getId(), deviceDAO.getName(), deviceDAO.getBrand(),
+                deviceDAO.getCreationTimestamp(), deviceDAO.getVersion());
+    }
+
+    /**
+     * The snapshot after an update setting the given fields, where not null.
+     */
+    public DeviceSnapshot updatedWith(String newName, String newBrand) {
+        return new DeviceSnapshot(id, newName == null ? name : newName, newBrand == null ? brand : newBrand,
+                creationTimestamp, version + 1);
+    }
+
+    public DeviceResponse toResponse() {
+        DeviceResponse deviceResponse = new DeviceResponse();
+        deviceResponse.setId(id);
+        deviceResponse.setName(name);
+        deviceResponse.setBrand(brand);
+        deviceResponse.setCreationTimestamp(creationTimestamp);
+        deviceResponse.setVersion(version);
+        return deviceResponse;
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.uziskull.restdbservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+public class LocalSharedDeviceCache implements SharedDeviceCache {
+    private final Cache<UUID, DeviceSnapshot> devices;
+    private final Cache<BrandPageKey, BrandPageSnapshot> brandPages;
+
+    public LocalSharedDeviceCache(long maximumSize, Duration ttl, Duration brandPageTtl) {
+        this.devices = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.brandPages = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(brandPageTtl)
+                .build();
+    }
+
+    @Override
+    public Optional<DeviceSnapshot> getDevice(UUID id) {
+        return Optional.ofNullable(devices.getIfPresent(id));
+    }
+
+    @Override
+    public void putDevice(DeviceSnapshot deviceSnapshot) {
+        devices.put(deviceSnapshot.id(), deviceSnapshot);
+    }
+
+    @Override
+    public void evictDevice(UUID id) {
+        devices.invalidate(id);
+    }
+
+    @Override
+    public Optional<BrandPageSnapshot> getBrandPage(BrandPageKey key) {
+        return Optional.ofNullable(brandPages.getIfPresent(key));
+    }
+
+    @Override
+    public void putBrandPage(BrandPageKey key, BrandPageSnapshot brandPageSnapshot) {
+        brandPages.put(key, brandPageSnapshot);
+    }
+
+    @Override
+    public void evictBrand(String brand) {
+        brandPages.asMap().keySet().removeIf(key -> key.brand().equals(brand));
+    }
+
+    @Override
+    public void evictAllBrands() {
+        brandPages.invalidateAll();
+    }
+}
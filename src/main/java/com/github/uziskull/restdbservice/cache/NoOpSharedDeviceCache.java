@@ -0,0 +1,37 @@
+package com.github.uziskull.restdbservice.cache;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public class NoOpSharedDeviceCache implements SharedDeviceCache {
+
+    @Override
+    public Optional<DeviceSnapshot> getDevice(UUID id) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void putDevice(DeviceSnapshot deviceSnapshot) {
+    }
+
+    @Override
+    public void evictDevice(UUID id) {
+    }
+
+    @Override
+    public Optional<BrandPageSnapshot> getBrandPage(BrandPageKey key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void putBrandPage(BrandPageKey key, BrandPageSnapshot brandPageSnapshot) {
+    }
+
+    @Override
+    public void evictBrand(String brand) {
+    }
+
+    @Override
+    public void evictAllBrands() {
+    }
+}
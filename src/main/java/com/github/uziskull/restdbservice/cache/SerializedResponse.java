@@ -0,0 +1,49 @@
+package com.github.uziskull.restdbservice.cache;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+@Getter
+public class SerializedResponse {
+    private final String contentType;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private volatile byte[] gzippedBody;
+
+    /**
+     * @param headers the headers to send along with the body, other than its content type, length and encoding
+     */
+    public SerializedResponse(String contentType, HttpHeaders headers, byte[] body) {
+        this.contentType = contentType;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+    }
+
+    public String getETag() {
+        return headers.getFirst(HttpHeaders.ETAG);
+    }
+
+    /**
+     * Compressed on first use, as most cached responses are never asked for with gzip. Concurrent first uses may
+     * compress twice, but always to the same bytes.
+     */
+    public byte[] getGzippedBody() {
+        byte[] gzipped = gzippedBody;
+        if (gzipped == null) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(body.length / 2 + 32);
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+                gzipOutputStream.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            gzipped = outputStream.toByteArray();
+            gzippedBody = gzipped;
+        }
+        return gzipped;
+    }
+}
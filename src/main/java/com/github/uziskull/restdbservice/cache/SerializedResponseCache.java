@@ -0,0 +1,165 @@
+package com.github.uziskull.restdbservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Response bodies already written for a device or a brand listing, grouped by that device or brand so that the
+ * invalidations published by {@link DeviceCache} drop every representation of it at once.
+ */
+@Component
+public class SerializedResponseCache implements MeterBinder {
+    private static final String DEVICE_CACHE_NAME = "device-responses";
+    private static final String BRAND_CACHE_NAME = "device-brand-responses";
+    // Devices and brands sharing a stripe only cost each other a few uncached responses
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final boolean enabled;
+    private final boolean gzip;
+    private final long gzipMinSize;
+    private final Cache<UUID, Map<SerializedResponseKey, SerializedResponse>> deviceResponses;
+    private final Cache<String, Map<SerializedResponseKey, SerializedResponse>> brandResponses;
+    private final AtomicLongArray deviceGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLongArray brandGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong allBrandsGeneration = new AtomicLong();
+    private final Stats deviceStats = new Stats(new LongAdder(), new LongAdder());
+    private final Stats brandStats = new Stats(new LongAdder(), new LongAdder());
+
+    public SerializedResponseCache(DeviceProperties deviceProperties, CacheInvalidationBus invalidationBus) {
+        DeviceProperties.Cache cacheProperties = deviceProperties.getCache();
+        DeviceProperties.ResponseCache responseProperties = cacheProperties.getResponse();
+        // Device updates are only published while the device cache is on
+        this.enabled = cacheProperties.isEnabled() && responseProperties.isEnabled();
+        this.gzip = responseProperties.isGzip();
+        this.gzipMinSize = responseProperties.getGzipMinSize().toBytes();
+        this.deviceResponses = newCache(responseProperties);
+        this.brandResponses = newCache(responseProperties);
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    private <K> Cache<K, Map<SerializedResponseKey, SerializedResponse>> newCache(
+            DeviceProperties.ResponseCache responseProperties) {
+        return Caffeine.newBuilder()
+                .maximumWeight(enabled ? responseProperties.getMaximumSize().toBytes() : 0)
+                .<K, Map<SerializedResponseKey, SerializedResponse>>weigher((key, responses) -> responses.values()
+                        .stream()
+                        .mapToInt(response -> response.getBody().length)
+                        .sum())
+                .expireAfterWrite(responseProperties.getTtl())
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isCompressible(@NonNull SerializedResponse response) {
+        return gzip && response.getBody().length >= gzipMinSize;
+    }
+
+    /**
+     * To be read before producing a response that is going to be {@link #put}, so that a response produced from
+     * data older than an invalidation of its device or brand is not cached. Invalidations of other devices and brands
+     * leave it alone, unless they share its stripe.
+     */
+    public long generation(@NonNull SerializedResponseKey key) {
+        if (key.deviceId() != null) {
+            return deviceGenerations.get(stripeOf(key.deviceId()));
+        }
+        // Both only ever grow, so their sum changes with either of them
+        return brandGenerations.get(stripeOf(key.brand())) + allBrandsGeneration.get();
+    }
+
+    private static int stripeOf(Object group) {
+        int hash = group.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), GENERATION_STRIPES);
+    }
+
+    public SerializedResponse get(@NonNull SerializedResponseKey key) {
+        if (!enabled) {
+            return null;
+        }
+        Map<SerializedResponseKey, SerializedResponse> responses = key.deviceId() != null ?
+                deviceResponses.getIfPresent(key.deviceId()) : brandResponses.getIfPresent(key.brand());
+        SerializedResponse response = responses == null ? null : responses.get(key);
+        Stats stats = key.deviceId() != null ? deviceStats : brandStats;
+        (response == null ? stats.misses() : stats.hits()).increment();
+        return response;
+    }
+
+    public void put(@NonNull SerializedResponseKey key, @NonNull SerializedResponse response, long loadGeneration) {
+        if (!enabled) {
+            return;
+        }
+        if (key.deviceId() != null) {
+            put(deviceResponses, key.deviceId(), key, response, loadGeneration);
+        } else {
+            put(brandResponses, key.brand(), key, response, loadGeneration);
+        }
+    }
+
+    private <K> void put(Cache<K, Map<SerializedResponseKey, SerializedResponse>> cache, K group,
+                         SerializedResponseKey key, SerializedResponse response, long loadGeneration) {
+        cache.asMap().compute(group, (ignored, responses) -> {
+            if (generation(key) != loadGeneration) {
+                return responses;
+            }
+            Map<SerializedResponseKey, SerializedResponse> updated =
+                    responses == null ? new HashMap<>() : new HashMap<>(responses);
+            updated.put(key, response);
+            return Map.copyOf(updated);
+        });
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        switch (invalidation.type()) {
+            case DEVICE -> {
+                deviceGenerations.incrementAndGet(stripeOf(invalidation.deviceId()));
+                deviceResponses.invalidate(invalidation.deviceId());
+            }
+            case BRAND -> {
+                brandGenerations.incrementAndGet(stripeOf(invalidation.brand()));
+                brandResponses.invalidate(invalidation.brand());
+            }
+            case ALL_BRANDS -> {
+                allBrandsGeneration.incrementAndGet();
+                brandResponses.invalidateAll();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        deviceStats.bindTo(registry, DEVICE_CACHE_NAME, deviceResponses);
+        brandStats.bindTo(registry, BRAND_CACHE_NAME, brandResponses);
+    }
+
+    private record Stats(LongAdder hits, LongAdder misses) {
+
+        void bindTo(MeterRegistry registry, String cacheName, Cache<?, ?> cache) {
+            FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                    .tags("cache", cacheName, "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                    .tags("cache", cacheName, "result", "miss")
+                    .register(registry);
+            Gauge.builder("cache.size", cache, Cache::estimatedSize)
+                    .tag("cache", cacheName)
+                    .register(registry);
+        }
+    }
+}
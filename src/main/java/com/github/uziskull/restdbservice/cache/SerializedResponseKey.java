@@ -0,0 +1,18 @@
+package com.github.uziskull.restdbservice.cache;
+
+import java.util.UUID;
+
+/**
+ * A cached response is invalidated through its device or brand, and told apart from the other representations of
+ * the same resource by the full request URL and the Accept header it was negotiated with.
+ */
+public record SerializedResponseKey(UUID deviceId, String brand, String url, String accept) {
+
+    public static SerializedResponseKey device(UUID deviceId, String url, String accept) {
+        return new SerializedResponseKey(deviceId, null, url, accept);
+    }
+
+    public static SerializedResponseKey brand(String brand, String url, String accept) {
+        return new SerializedResponseKey(null, brand, url, accept);
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.uziskull.restdbservice.cache;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface SharedDeviceCache {
+    Optional<DeviceSnapshot> getDevice(UUID id);
+
+    void putDevice(DeviceSnapshot deviceSnapshot);
+
+    void evictDevice(UUID id);
+
+    Optional<BrandPageSnapshot> getBrandPage(BrandPageKey key);
+
+    void putBrandPage(BrandPageKey key, BrandPageSnapshot brandPageSnapshot);
+
+    void evictBrand(String brand);
+
+    void evictAllBrands();
+}
@@ -0,0 +1,31 @@
+package com.github.uziskull.restdbservice.config;
+
+import com.github.uziskull.restdbservice.cache.CacheInvalidationBus;
+import com.github.uziskull.restdbservice.cache.LocalSharedDeviceCache;
+import com.github.uziskull.restdbservice.cache.LoopbackInvalidationBus;
+import com.github.uziskull.restdbservice.cache.NoOpSharedDeviceCache;
+import com.github.uziskull.restdbservice.cache.SharedDeviceCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SharedDeviceCache sharedDeviceCache(DeviceProperties deviceProperties) {
+        DeviceProperties.Cache cacheProperties = deviceProperties.getCache();
+        return switch (cacheProperties.getShared().getType()) {
+            case NONE -> new NoOpSharedDeviceCache();
+            case LOCAL -> new LocalSharedDeviceCache(cacheProperties.getShared().getMaximumSize(),
+                    cacheProperties.getTtl(), cacheProperties.getBrandPageTtl());
+        };
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheInvalidationBus cacheInvalidationBus() {
+        return new LoopbackInvalidationBus();
+    }
+}
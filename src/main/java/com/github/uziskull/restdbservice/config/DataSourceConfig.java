@@ -0,0 +1,106 @@
+package com.github.uziskull.restdbservice.config;
+
+import com.github.uziskull.restdbservice.datasource.ConnectionLimitingDataSource;
+import com.github.uziskull.restdbservice.datasource.ReplicaRoutingDataSource;
+import com.github.uziskull.restdbservice.datasource.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Configuration
+public class DataSourceConfig {
+    private static final int DEFAULT_MAX_CONCURRENT = 10;
+    private static final String VIRTUAL_THREADS_PROPERTY = "spring.threads.virtual.enabled";
+
+    @Bean
+    public static BeanPostProcessor connectionLimiterPostProcessor(ObjectProvider<DeviceProperties> deviceProperties,
+                                                                   Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource
+                        || bean instanceof ReplicaRoutingDataSource || bean instanceof ShardRoutingDataSource) {
+                    return bean;
+                }
+                DeviceProperties properties = deviceProperties.getObject();
+                boolean virtualThreads = environment.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, false);
+                DataSource primaryDataSource = limitConnections(dataSource, properties.getConnectionLimiter(),
+                        virtualThreads);
+                boolean replicated = !properties.getReplicas().getDatasources().isEmpty();
+                boolean sharded = !properties.getSharding().getDatasources().isEmpty();
+                if (replicated && sharded) {
+                    throw new IllegalStateException("Read replicas and sharding can't be configured together");
+                }
+                if (replicated) {
+                    return routeReads(primaryDataSource, properties.getReplicas());
+                }
+                if (sharded) {
+                    return routeShards(primaryDataSource, properties.getSharding());
+                }
+                return primaryDataSource;
+            }
+        };
+    }
+
+    private static DataSource limitConnections(DataSource dataSource, DeviceProperties.ConnectionLimiter limiter,
+                                               boolean virtualThreads) {
+        if (!Objects.requireNonNullElse(limiter.getEnabled(), virtualThreads)) {
+            return dataSource;
+        }
+        int maxConcurrent = limiter.getMaxConcurrent() > 0 ? limiter.getMaxConcurrent() : poolSize(dataSource);
+        return new ConnectionLimitingDataSource(dataSource, maxConcurrent, limiter.getAcquireTimeout());
+    }
+
+    // Replica pools start even while their database is down, and give up on it quickly, so reads fail over
+    private static DataSource routeReads(DataSource primaryDataSource, DeviceProperties.Replicas replicas) {
+        Map<String, DataSource> replicaDataSources = new LinkedHashMap<>();
+        for (DeviceProperties.Database replica : replicas.getDatasources()) {
+            HikariDataSource replicaDataSource = new HikariDataSource();
+            replicaDataSource.setPoolName("replica-" + replicaDataSources.size());
+            replicaDataSource.setJdbcUrl(replica.getUrl());
+            replicaDataSource.setUsername(replica.getUsername());
+            replicaDataSource.setPassword(replica.getPassword());
+            replicaDataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            replicaDataSource.setReadOnly(true);
+            replicaDataSource.setConnectionTimeout(replicas.getConnectionTimeout().toMillis());
+            replicaDataSource.setInitializationFailTimeout(-1);
+            replicaDataSources.put(replicaDataSource.getPoolName(), replicaDataSource);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSources, replicas.getHealthCheckInterval(),
+                replicas.getConnectionTimeout());
+    }
+
+    // Only the primary goes through the connection limiter, the other shards are bounded by their pool size alone
+    private static DataSource routeShards(DataSource primaryDataSource, DeviceProperties.Sharding sharding) {
+        List<DataSource> shardDataSources = new ArrayList<>();
+        for (DeviceProperties.Database shard : sharding.getDatasources()) {
+            HikariDataSource shardDataSource = new HikariDataSource();
+            shardDataSource.setPoolName("shard-" + (shardDataSources.size() + 1));
+            shardDataSource.setJdbcUrl(shard.getUrl());
+            shardDataSource.setUsername(shard.getUsername());
+            shardDataSource.setPassword(shard.getPassword());
+            shardDataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            shardDataSources.add(shardDataSource);
+        }
+        return new ShardRoutingDataSource(primaryDataSource, shardDataSources);
+    }
+
+    // Hikari only resolves its default pool size when the pool starts, so an unset size still reads as -1 here
+    private static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari && hikari.getMaximumPoolSize() > 0) {
+            return hikari.getMaximumPoolSize();
+        }
+        return DEFAULT_MAX_CONCURRENT;
+    }
+}
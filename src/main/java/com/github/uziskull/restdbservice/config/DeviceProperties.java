@@ -0,0 +1,131 @@
+package com.github.uziskull.restdbservice.config;
+
+import com.github.uziskull.restdbservice.model.dao.id.DeviceIdStrategy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "devices")
+public class DeviceProperties {
+    private DeviceIdStrategy idStrategy = DeviceIdStrategy.TIME_ORDERED;
+    private Cache cache = new Cache();
+    private CountCache countCache = new CountCache();
+    private Coalescing coalescing = new Coalescing();
+    private Bulk bulk = new Bulk();
+    private ConnectionLimiter connectionLimiter = new ConnectionLimiter();
+    private Replicas replicas = new Replicas();
+    private Sharding sharding = new Sharding();
+    private ErrorLog errorLog = new ErrorLog();
+    private WriteBehind writeBehind = new WriteBehind();
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+        private long maximumSize = 100_000;
+        private Duration ttl = Duration.ofMinutes(10);
+        private Duration negativeTtl = Duration.ofSeconds(30);
+        private long brandPageMaximumSize = 10_000;
+        private Duration brandPageTtl = Duration.ofMinutes(1);
+        private SharedCache shared = new SharedCache();
+        private ResponseCache response = new ResponseCache();
+    }
+
+    @Data
+    public static class ResponseCache {
+        private boolean enabled = true;
+        private DataSize maximumSize = DataSize.ofMegabytes(32);
+        private Duration ttl = Duration.ofMinutes(10);
+        private boolean gzip = true;
+        private DataSize gzipMinSize = DataSize.ofKilobytes(1);
+    }
+
+    @Data
+    public static class SharedCache {
+        private SharedCacheType type = SharedCacheType.NONE;
+        private long maximumSize = 1_000_000;
+    }
+
+    public enum SharedCacheType {
+        NONE,
+        LOCAL
+    }
+
+    @Data
+    public static class CountCache {
+        private boolean enabled = false;
+        private long maximumSize = 10_000;
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Coalescing {
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class Bulk {
+        private int chunkSize = 500;
+        private int maxSize = 10_000;
+    }
+
+    /**
+     * Left unset, the limiter is only enabled along with {@code spring.threads.virtual.enabled}: platform request
+     * threads are already bounded by the server's thread pool.
+     */
+    @Data
+    public static class ConnectionLimiter {
+        private Boolean enabled;
+        private int maxConcurrent = 0;
+        private Duration acquireTimeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Replicas {
+        private List<Database> datasources = new ArrayList<>();
+        private Duration stickiness = Duration.ofSeconds(5);
+        private Duration healthCheckInterval = Duration.ofSeconds(5);
+        private Duration connectionTimeout = Duration.ofSeconds(1);
+    }
+
+    /**
+     * The primary datasource is always shard 0, and each of these datasources adds one more shard.
+     */
+    @Data
+    public static class Sharding {
+        private List<Database> datasources = new ArrayList<>();
+
+        public int getShardCount() {
+            return datasources.size() + 1;
+        }
+    }
+
+    @Data
+    public static class Database {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+
+    @Data
+    public static class WriteBehind {
+        private boolean enabled = true;
+        private int queueCapacity = 10_000;
+        private int flushSize = 500;
+        private Duration flushInterval = Duration.ofMillis(50);
+        private Duration drainTimeout = Duration.ofSeconds(30);
+        private long statusMaximumSize = 100_000;
+        private Duration statusTtl = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class ErrorLog {
+        private int maxPerInterval = 10;
+        private Duration interval = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.uziskull.restdbservice.config;
+
+import com.github.uziskull.restdbservice.model.dao.id.DeviceIdGenerator;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer deviceIdStrategyCustomizer(DeviceProperties deviceProperties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(DeviceIdGenerator.STRATEGY_SETTING, deviceProperties.getIdStrategy().name());
+            hibernateProperties.put(DeviceIdGenerator.SHARD_COUNT_SETTING,
+                    deviceProperties.getSharding().getShardCount());
+        };
+    }
+}
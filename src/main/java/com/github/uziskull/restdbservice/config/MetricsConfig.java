@@ -0,0 +1,60 @@
+package com.github.uziskull.restdbservice.config;
+
+import com.github.uziskull.restdbservice.metrics.StatementCountInterceptor;
+import com.github.uziskull.restdbservice.metrics.StatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.function.Predicate;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+    private final StatementCounter statementCounter = new StatementCounter();
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public MetricsConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        Predicate<ProceedingJoinPoint> skipExceptionHandlers = MetricsConfig::isExceptionHandler;
+        return new TimedAspect(meterRegistry, skipExceptionHandlers);
+    }
+
+    private static boolean isExceptionHandler(ProceedingJoinPoint joinPoint) {
+        return joinPoint.getSignature() instanceof MethodSignature signature
+                && signature.getMethod().isAnnotationPresent(ExceptionHandler.class);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(
+                AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    /**
+     * Applied to the executor running streamed and other asynchronous responses, and to the shard queries.
+     */
+    @Bean
+    public TaskDecorator statementCountPropagation() {
+        return statementCounter::propagate;
+    }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementCountInterceptor(statementCounter, meterRegistry.getObject()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.uziskull.restdbservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.config.EnableHypermediaSupport;
+import org.springframework.hateoas.config.EnableHypermediaSupport.HypermediaType;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.LinkRelationProvider;
+import org.springframework.hateoas.support.WebStack;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.lang.NonNull;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.accept.RequestedContentTypeResolverBuilder;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+@Configuration
+@Profile("reactive")
+@EnableHypermediaSupport(type = HypermediaType.HAL, stacks = WebStack.WEBFLUX)
+public class ReactiveConfig implements WebFluxConfigurer {
+    private final ObjectMapper objectMapper;
+    private final LinkRelationProvider linkRelationProvider;
+
+    public ReactiveConfig(ObjectMapper objectMapper, LinkRelationProvider linkRelationProvider) {
+        this.objectMapper = objectMapper;
+        this.linkRelationProvider = linkRelationProvider;
+    }
+
+    // Tomcat is on the classpath for the servlet stack, and would otherwise be picked for the reactive one too
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Override
+    public void configureArgumentResolvers(@NonNull ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new ReactivePageableHandlerMethodArgumentResolver());
+    }
+
+    // Same negotiation as the servlet stack: "format" parameter, then Accept header, then JSON
+    @Override
+    public void configureContentTypeResolver(@NonNull RequestedContentTypeResolverBuilder builder) {
+        builder.parameterResolver()
+                .parameterName("format")
+                .mediaType("ndjson", MediaType.APPLICATION_NDJSON);
+        builder.headerResolver();
+        builder.fixedResolver(MediaType.APPLICATION_JSON, MediaType.ALL);
+    }
+
+    // Hypermedia support only maps representation models to HAL and JSON, so streamed NDJSON lines get HAL as well
+    @Override
+    public void configureHttpMessageCodecs(@NonNull ServerCodecConfigurer configurer) {
+        ObjectMapper halMapper = objectMapper.copy()
+                .registerModule(new Jackson2HalModule());
+        halMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(linkRelationProvider,
+                CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        configurer.defaultCodecs().configureDefaultCodec(codec -> {
+            if (codec instanceof Jackson2JsonEncoder encoder) {
+                encoder.registerObjectMappersForType(RepresentationModel.class,
+                        objectMappers -> objectMappers.put(MediaType.APPLICATION_NDJSON, halMapper));
+            }
+        });
+    }
+}
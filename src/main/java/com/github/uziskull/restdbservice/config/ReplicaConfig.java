@@ -0,0 +1,22 @@
+package com.github.uziskull.restdbservice.config;
+
+import com.github.uziskull.restdbservice.controller.ReplicaStickinessFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!reactive")
+public class ReplicaConfig {
+
+    @Bean
+    public FilterRegistrationBean<ReplicaStickinessFilter> replicaStickinessFilter(DeviceProperties deviceProperties) {
+        DeviceProperties.Replicas replicas = deviceProperties.getReplicas();
+        FilterRegistrationBean<ReplicaStickinessFilter> registration =
+                new FilterRegistrationBean<>(new ReplicaStickinessFilter(replicas.getStickiness()));
+        registration.addUrlPatterns("/api/v1/devices/*");
+        registration.setEnabled(!replicas.getDatasources().isEmpty());
+        return registration;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.uziskull.restdbservice.config;
+
+import com.github.uziskull.restdbservice.cache.SerializedResponseCache;
+import com.github.uziskull.restdbservice.controller.SerializedResponseFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!reactive")
+public class ResponseCacheConfig {
+
+    @Bean
+    public FilterRegistrationBean<SerializedResponseFilter> serializedResponseFilter(
+            SerializedResponseCache serializedResponseCache) {
+        FilterRegistrationBean<SerializedResponseFilter> registration =
+                new FilterRegistrationBean<>(new SerializedResponseFilter(serializedResponseCache));
+        registration.addUrlPatterns("/api/v1/devices/*");
+        return registration;
+    }
+}
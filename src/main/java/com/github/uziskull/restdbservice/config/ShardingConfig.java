@@ -0,0 +1,43 @@
+package com.github.uziskull.restdbservice.config;
+
+import com.github.uziskull.restdbservice.service.DeviceShards;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.relational.SchemaManager;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.Set;
+
+@Configuration
+@Profile("!reactive")
+public class ShardingConfig {
+    private static final Set<String> SCHEMA_CREATING_DDL_AUTO = Set.of("create", "create-drop");
+
+    /**
+     * Hibernate only manages the schema of shard 0, the primary datasource, so a schema it creates there is created
+     * on the other shards too. Any other schema management must cover every shard itself.
+     */
+    @Bean
+    public SmartInitializingSingleton shardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                                             DeviceShards deviceShards) {
+        return () -> {
+            Object ddlAuto = entityManagerFactory.getProperties().get(AvailableSettings.HBM2DDL_AUTO);
+            if (!deviceShards.isSharded() || ddlAuto == null
+                    || !SCHEMA_CREATING_DDL_AUTO.contains(ddlAuto.toString())) {
+                return;
+            }
+            SchemaManager schemaManager = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+            for (int shard = 1; shard < deviceShards.getShardCount(); shard++) {
+                deviceShards.onShard(shard, () -> {
+                    schemaManager.dropMappedObjects(true);
+                    schemaManager.exportMappedObjects(true);
+                    return null;
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.uziskull.restdbservice.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.github.uziskull.restdbservice.controller.format.DeviceProtobufHttpMessageConverter;
+import com.github.uziskull.restdbservice.model.dto.PlainDeviceResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@Profile("!reactive")
+public class WireFormatConfig implements WebMvcConfigurer {
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public WireFormatConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    /**
+     * Appended after the JSON converters, so that they are only picked when the client asks for them.
+     */
+    @Override
+    public void extendMessageConverters(@NonNull List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+        converters.add(cborConverter(objectMapperBuilder));
+        converters.add(new DeviceProtobufHttpMessageConverter());
+    }
+
+    /**
+     * CBOR writes UUIDs as 16-byte binary strings and instants as epoch milliseconds, and leaves out the self path,
+     * which the client can derive from the ID.
+     */
+    public static MappingJackson2CborHttpMessageConverter cborConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder
+                .factory(new CBORFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .featuresToDisable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS,
+                        DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .mixIn(PlainDeviceResponse.class, CompactDeviceMixin.class)
+                .build());
+    }
+
+    @JsonIgnoreProperties("self")
+    private abstract static class CompactDeviceMixin {
+    }
+}
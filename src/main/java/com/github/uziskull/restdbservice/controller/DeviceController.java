@@ -1,48 +1,281 @@
 package com.github.uziskull.restdbservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.uziskull.restdbservice.controller.export.CsvDeviceExportWriter;
+import com.github.uziskull.restdbservice.controller.export.DeviceExportWriter;
+import com.github.uziskull.restdbservice.controller.export.NdjsonDeviceExportWriter;
+import com.github.uziskull.restdbservice.model.dto.BrandMatch;
+import com.github.uziskull.restdbservice.model.dto.BulkDeviceResult;
+import com.github.uziskull.restdbservice.model.dto.CursorPage;
+import com.github.uziskull.restdbservice.model.dto.DeviceLookupResult;
 import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
 import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.model.dto.DeviceWriteStatus;
 import com.github.uziskull.restdbservice.model.dto.ErrorResponse;
+import com.github.uziskull.restdbservice.model.dto.ImportSummary;
+import com.github.uziskull.restdbservice.model.dto.PlainDeviceResponse;
+import com.github.uziskull.restdbservice.model.dto.PlainPage;
 import com.github.uziskull.restdbservice.model.exception.DeviceException;
-import com.github.uziskull.restdbservice.model.exception.DeviceNotFoundException;
+import com.github.uziskull.restdbservice.model.exception.DeviceVersionMismatchException;
+import com.github.uziskull.restdbservice.service.DeviceImportService;
 import com.github.uziskull.restdbservice.service.DeviceService;
+import com.github.uziskull.restdbservice.service.DeviceWriteBehindService;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.data.web.SlicedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.SlicedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.lang.NonNull;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static com.github.uziskull.restdbservice.controller.format.DeviceProtobufHttpMessageConverter.PROTOBUF_VALUE;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
 
 @RestController
 @RequestMapping("api/v1/devices")
+@Profile("!reactive")
 @AllArgsConstructor
 @Slf4j
+@Timed(DeviceController.METRIC_NAME)
 public class DeviceController {
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final String PLAIN_JSON_VALUE = "application/vnd.devices.plain+json";
+    public static final String METRIC_NAME = "devices.controller";
+    public static final String ERROR_METRIC_NAME = "devices.errors";
+    public static final String PREFER = "Prefer";
+    public static final String PREFERENCE_APPLIED = "Preference-Applied";
+    public static final String RESPOND_ASYNC = "respond-async";
+    private static final String DEVICE_PATH_PREFIX = "/api/v1/devices/";
+    private static final String PROTOBUF_TAG = "pb";
+    // Entity tag suffixes of the negotiated representations, in the order they are produced
+    private static final List<Map.Entry<MediaType, String>> REPRESENTATION_TAGS = List.of(
+            Map.entry(MediaType.parseMediaType(PLAIN_JSON_VALUE), "plain"),
+            Map.entry(MediaType.APPLICATION_CBOR, "cbor"),
+            Map.entry(MediaType.parseMediaType(PROTOBUF_VALUE), PROTOBUF_TAG));
+
     private final DeviceService deviceService;
+    private final DeviceImportService deviceImportService;
+    private final DeviceWriteBehindService deviceWriteBehindService;
+    private final ObjectMapper objectMapper;
     private final PagedResourcesAssembler<DeviceResponse> assembler;
+    private final SlicedResourcesAssembler<DeviceResponse> slicedAssembler;
+    private final DeviceErrorReporter deviceErrorReporter;
+    private final ContentNegotiationManager contentNegotiationManager;
+
+    /**
+     * Tags a device by its version, along with the representation it is written in, if it isn't the HAL one: every
+     * representation of a version has a tag of its own, while still telling its version to {@code If-Match}.
+     */
+    private static <B extends ResponseEntity.HeadersBuilder<B>> B withETag(B builder, Long version,
+                                                                           String representation) {
+        builder.varyBy(HttpHeaders.ACCEPT);
+        if (version == null) {
+            return builder;
+        }
+        return builder.eTag("\"" + version + (representation == null ? "" : "-" + representation) + "\"");
+    }
+
+    private static <B extends ResponseEntity.HeadersBuilder<B>> B withETag(B builder, Long version) {
+        return withETag(builder, version, null);
+    }
+
+    // The representation the negotiated endpoints are about to be written in, picked the way the converters are
+    private String negotiatedRepresentation(NativeWebRequest request) {
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = new ArrayList<>(contentNegotiationManager.resolveMediaTypes(request));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            acceptedTypes = new ArrayList<>(List.of(MediaType.ALL));
+        }
+        MimeTypeUtils.sortBySpecificity(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            for (Map.Entry<MediaType, String> representationTag : REPRESENTATION_TAGS) {
+                if (acceptedType.isCompatibleWith(representationTag.getKey())) {
+                    return representationTag.getValue();
+                }
+            }
+        }
+        return REPRESENTATION_TAGS.get(0).getValue();
+    }
+
+    private static PlainDeviceResponse toPlain(DeviceResponse deviceResponse) {
+        return PlainDeviceResponse.fromResponse(deviceResponse, DEVICE_PATH_PREFIX);
+    }
+
+    private static CursorPage<PlainDeviceResponse> toPlain(CursorPage<DeviceResponse> cursorPage) {
+        return CursorPage.<PlainDeviceResponse>builder()
+                .content(cursorPage.getContent().stream().map(DeviceController::toPlain).toList())
+                .nextCursor(cursorPage.getNextCursor())
+                .build();
+    }
+
+    static Long parseETagVersion(String eTag) {
+        if (eTag == null || eTag.isBlank() || "*".equals(eTag.trim())) {
+            return null;
+        }
+        String value = eTag.trim();
+        if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            throw new DeviceVersionMismatchException();
+        }
+        String version = value.substring(1, value.length() - 1);
+        int separator = version.indexOf('-');
+        if (separator >= 0) {
+            String representation = version.substring(separator + 1);
+            if (REPRESENTATION_TAGS.stream().noneMatch(tag -> tag.getValue().equals(representation))) {
+                throw new DeviceVersionMismatchException();
+            }
+            version = version.substring(0, separator);
+        }
+        try {
+            return Long.valueOf(version);
+        } catch (NumberFormatException e) {
+            throw new DeviceVersionMismatchException();
+        }
+    }
+
+    private static CollectionModel<EntityModel<DeviceResponse>> toCursorModel(CursorPage<DeviceResponse> cursorPage) {
+        return CollectionModel.of(cursorPage.getContent().stream()
+                .map(EntityModel::of)
+                .toList());
+    }
+
+    /**
+     * {@code Prefer} holds a comma-separated list of preferences, each possibly with a value and parameters.
+     */
+    static boolean prefersRespondAsync(List<String> prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String header : prefer) {
+            for (String preference : header.split(",")) {
+                if (RESPOND_ASYNC.equalsIgnoreCase(preference.split("[;=]", 2)[0].trim())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean queuesCreation(List<String> prefer) {
+        return deviceWriteBehindService.isEnabled() && prefersRespondAsync(prefer);
+    }
+
+    private DeviceWriteStatus enqueue(DeviceRequest deviceRequest) {
+        log.debug("Queueing device creation: {}", deviceRequest);
+        return deviceWriteBehindService.enqueue(deviceRequest);
+    }
+
+    private static ResponseEntity.BodyBuilder accepted(DeviceWriteStatus writeStatus) {
+        return ResponseEntity.accepted()
+                .location(linkTo(methodOn(DeviceController.class).getDeviceWriteStatus(writeStatus.getId())).toUri())
+                .header(PREFERENCE_APPLIED, RESPOND_ASYNC);
+    }
 
     @PostMapping
-    public ResponseEntity<DeviceResponse> createDevice(@NonNull @RequestBody DeviceRequest deviceRequest) {
+    public ResponseEntity<?> createDevice(@RequestHeader(value = PREFER, required = false) List<String> prefer,
+                                          @NonNull @RequestBody DeviceRequest deviceRequest) {
+        if (queuesCreation(prefer)) {
+            DeviceWriteStatus writeStatus = enqueue(deviceRequest);
+            return accepted(writeStatus).body(writeStatus);
+        }
         log.debug("Creating device: {}", deviceRequest);
         DeviceResponse deviceResponse = deviceService.addDevice(deviceRequest);
         Link selfRel = linkTo(methodOn(DeviceController.class)
                 .getDeviceById(deviceResponse.getId()))
                 .withSelfRel();
         deviceResponse.add(selfRel);
-        return ResponseEntity.created(selfRel.toUri()).body(deviceResponse);
+        return withETag(ResponseEntity.created(selfRel.toUri()), deviceResponse.getVersion()).body(deviceResponse);
+    }
+
+    @PostMapping(produces = {PLAIN_JSON_VALUE, APPLICATION_CBOR_VALUE, PROTOBUF_VALUE})
+    public ResponseEntity<?> createPlainDevice(@RequestHeader(value = PREFER, required = false) List<String> prefer,
+                                               @NonNull @RequestBody DeviceRequest deviceRequest,
+                                               NativeWebRequest request) {
+        if (queuesCreation(prefer)) {
+            DeviceWriteStatus writeStatus = enqueue(deviceRequest);
+            // Protobuf only has messages for devices, so the status is left to its Location
+            return PROTOBUF_TAG.equals(negotiatedRepresentation(request)) ? accepted(writeStatus).build() :
+                    accepted(writeStatus).body(writeStatus);
+        }
+        log.debug("Creating device, as plain JSON: {}", deviceRequest);
+        PlainDeviceResponse deviceResponse = toPlain(deviceService.addDevice(deviceRequest));
+        return withETag(ResponseEntity.created(URI.create(deviceResponse.getSelf())), deviceResponse.getVersion(),
+                negotiatedRepresentation(request))
+                .body(deviceResponse);
+    }
+
+    @PostMapping("bulk")
+    public ResponseEntity<List<BulkDeviceResult>> createDevices(
+            @NonNull @RequestBody List<DeviceRequest> deviceRequests) {
+        log.debug("Creating {} devices in bulk", deviceRequests.size());
+        return ResponseEntity.ok(deviceService.addDevices(deviceRequests));
+    }
+
+    @PostMapping("lookup")
+    public ResponseEntity<DeviceLookupResult> lookupDevices(@NonNull @RequestBody List<UUID> ids) {
+        log.debug("Looking up {} devices by id", ids.size());
+        return ResponseEntity.ok(deviceService.lookupDevices(ids));
+    }
+
+    @PostMapping(value = "import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportSummary> importDevices(InputStream deviceRequests) throws IOException {
+        log.debug("Importing devices from NDJSON stream");
+        return ResponseEntity.ok(deviceImportService.importDevices(deviceRequests, error -> {
+        }));
+    }
+
+    @PostMapping(value = "import", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importDevicesWithErrors(InputStream deviceRequests) {
+        log.debug("Importing devices from NDJSON stream, streaming back line errors");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> writeNdjson(outputStream, deviceImportService.importDevices(deviceRequests,
+                        error -> writeNdjson(outputStream, error))));
+    }
+
+    private void writeNdjson(OutputStream outputStream, Object value) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(value));
+            outputStream.write('\n');
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @GetMapping
@@ -52,6 +285,52 @@ public class DeviceController {
         return ResponseEntity.ok(assembler.toModel(deviceResponses));
     }
 
+    @GetMapping(params = {"count=false", "!cursor"})
+    public ResponseEntity<SlicedModel<EntityModel<DeviceResponse>>> getAllDevicesWithoutCount(Pageable pageable) {
+        log.debug("Getting all devices, without total count, with pagination: {}", pageable);
+        Slice<DeviceResponse> deviceResponses = deviceService.sliceAllDevices(pageable);
+        return ResponseEntity.ok(slicedAssembler.toModel(deviceResponses));
+    }
+
+    @GetMapping(produces = {PLAIN_JSON_VALUE, APPLICATION_CBOR_VALUE, PROTOBUF_VALUE})
+    public ResponseEntity<PlainPage<PlainDeviceResponse>> getAllPlainDevices(Pageable pageable) {
+        log.debug("Getting all devices as plain JSON, with pagination: {}", pageable);
+        return ResponseEntity.ok(PlainPage.of(deviceService.listAllDevices(pageable), DeviceController::toPlain));
+    }
+
+    @GetMapping(params = {"count=false", "!cursor"},
+            produces = {PLAIN_JSON_VALUE, APPLICATION_CBOR_VALUE, PROTOBUF_VALUE})
+    public ResponseEntity<PlainPage<PlainDeviceResponse>> getAllPlainDevicesWithoutCount(Pageable pageable) {
+        log.debug("Getting all devices as plain JSON, without total count, with pagination: {}", pageable);
+        return ResponseEntity.ok(PlainPage.of(deviceService.sliceAllDevices(pageable), DeviceController::toPlain));
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CollectionModel<EntityModel<DeviceResponse>>> getAllDevicesByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.debug("Getting all devices, with cursor \"{}\" and size {}", cursor, size);
+        CursorPage<DeviceResponse> deviceResponses = deviceService.scrollAllDevices(cursor, size);
+        CollectionModel<EntityModel<DeviceResponse>> model = toCursorModel(deviceResponses)
+                .add(linkTo(methodOn(DeviceController.class)
+                        .getAllDevicesByCursor(cursor, size))
+                        .withSelfRel());
+        if (deviceResponses.hasNext()) {
+            model.add(linkTo(methodOn(DeviceController.class)
+                    .getAllDevicesByCursor(deviceResponses.getNextCursor(), size))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        return ResponseEntity.ok(model);
+    }
+
+    @GetMapping(params = "cursor", produces = {PLAIN_JSON_VALUE, APPLICATION_CBOR_VALUE, PROTOBUF_VALUE})
+    public ResponseEntity<CursorPage<PlainDeviceResponse>> getAllPlainDevicesByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.debug("Getting all devices as plain JSON, with cursor \"{}\" and size {}", cursor, size);
+        return ResponseEntity.ok(toPlain(deviceService.scrollAllDevices(cursor, size)));
+    }
+
     @GetMapping("brand/{brand}")
     public ResponseEntity<PagedModel<EntityModel<DeviceResponse>>> getDevicesByBrand(@PathVariable String brand,
                                                                                      Pageable pageable) {
@@ -60,6 +339,115 @@ public class DeviceController {
         return ResponseEntity.ok(assembler.toModel(deviceResponses));
     }
 
+    @GetMapping(value = "brand/{brand}", params = {"count=false", "!cursor", "!match"})
+    public ResponseEntity<SlicedModel<EntityModel<DeviceResponse>>> getDevicesByBrandWithoutCount(
+            @PathVariable String brand,
+            Pageable pageable) {
+        log.debug("Getting all devices from brand \"{}\", without total count, with pagination: {}", brand, pageable);
+        Slice<DeviceResponse> deviceResponses = deviceService.sliceDevicesByBrand(brand, pageable);
+        return ResponseEntity.ok(slicedAssembler.toModel(deviceResponses));
+    }
+
+    @GetMapping(value = "brand/{brand}", produces = {PLAIN_JSON_VALUE, APPLICATION_CBOR_VALUE, PROTOBUF_VALUE})
+    public ResponseEntity<PlainPage<PlainDeviceResponse>> getPlainDevicesByBrand(@PathVariable String brand,
+                                                                                Pageable pageable) {
+        log.debug("Getting all devices from brand \"{}\" as plain JSON, with pagination: {}", brand, pageable);
+        return ResponseEntity.ok(PlainPage.of(deviceService.searchDeviceByBrand(brand, pageable),
+                DeviceController::toPlain));
+    }
+
+    @GetMapping(value = "brand/{brand}", params = {"count=false", "!cursor", "!match"},
+            produces = {PLAIN_JSON_VALUE, APPLICATION_CBOR_VALUE, PROTOBUF_VALUE})
+    public ResponseEntity<PlainPage<PlainDeviceResponse>> getPlainDevicesByBrandWithoutCount(
+            @PathVariable String brand,
+            Pageable pageable) {
+        log.debug("Getting all devices from brand \"{}\" as plain JSON, without total count, with pagination: {}",
+                brand, pageable);
+        return ResponseEntity.ok(PlainPage.of(deviceService.sliceDevicesByBrand(brand, pageable),
+                DeviceController::toPlain));
+    }
+
+    @GetMapping(value = "brand/{brand}", params = {"match", "!cursor"})
+    public ResponseEntity<SlicedModel<EntityModel<DeviceResponse>>> getDevicesByBrandMatch(
+            @PathVariable String brand,
+            @RequestParam BrandMatch match,
+            Pageable pageable) {
+        log.debug("Getting all devices matching brand \"{}\" ({}), with pagination: {}", brand, match, pageable);
+        Slice<DeviceResponse> deviceResponses = deviceService.sliceDevicesByBrand(brand, match, pageable);
+        return ResponseEntity.ok(slicedAssembler.toModel(deviceResponses));
+    }
+
+    @GetMapping(value = "brand/{brand}", params = {"match", "!cursor"},
+            produces = {PLAIN_JSON_VALUE, APPLICATION_CBOR_VALUE, PROTOBUF_VALUE})
+    public ResponseEntity<PlainPage<PlainDeviceResponse>> getPlainDevicesByBrandMatch(
+            @PathVariable String brand,
+            @RequestParam BrandMatch match,
+            Pageable pageable) {
+        log.debug("Getting all devices matching brand \"{}\" ({}) as plain JSON, with pagination: {}",
+                brand, match, pageable);
+        return ResponseEntity.ok(PlainPage.of(deviceService.sliceDevicesByBrand(brand, match, pageable),
+                DeviceController::toPlain));
+    }
+
+    @GetMapping(value = "brand/{brand}", params = "cursor")
+    public ResponseEntity<CollectionModel<EntityModel<DeviceResponse>>> getDevicesByBrandAndCursor(
+            @PathVariable String brand,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.debug("Getting all devices from brand \"{}\", with cursor \"{}\" and size {}", brand, cursor, size);
+        CursorPage<DeviceResponse> deviceResponses = deviceService.scrollDevicesByBrand(brand, cursor, size);
+        CollectionModel<EntityModel<DeviceResponse>> model = toCursorModel(deviceResponses)
+                .add(linkTo(methodOn(DeviceController.class)
+                        .getDevicesByBrandAndCursor(brand, cursor, size))
+                        .withSelfRel());
+        if (deviceResponses.hasNext()) {
+            model.add(linkTo(methodOn(DeviceController.class)
+                    .getDevicesByBrandAndCursor(brand, deviceResponses.getNextCursor(), size))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        return ResponseEntity.ok(model);
+    }
+
+    @GetMapping(value = "brand/{brand}", params = "cursor",
+            produces = {PLAIN_JSON_VALUE, APPLICATION_CBOR_VALUE, PROTOBUF_VALUE})
+    public ResponseEntity<CursorPage<PlainDeviceResponse>> getPlainDevicesByBrandAndCursor(
+            @PathVariable String brand,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.debug("Getting all devices from brand \"{}\" as plain JSON, with cursor \"{}\" and size {}",
+                brand, cursor, size);
+        return ResponseEntity.ok(toPlain(deviceService.scrollDevicesByBrand(brand, cursor, size)));
+    }
+
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportDevicesAsNdjson(@RequestParam(required = false) String brand) {
+        log.debug("Exporting devices as NDJSON, from brand \"{}\"", brand);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> exportDevices(brand,
+                        new NdjsonDeviceExportWriter(objectMapper.getFactory(), outputStream)));
+    }
+
+    @GetMapping(value = "export", produces = TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportDevicesAsCsv(@RequestParam(required = false) String brand) {
+        log.debug("Exporting devices as CSV, from brand \"{}\"", brand);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                .body(outputStream -> exportDevices(brand, new CsvDeviceExportWriter(outputStream)));
+    }
+
+    private void exportDevices(String brand, DeviceExportWriter exportWriter) throws IOException {
+        try (exportWriter) {
+            deviceService.exportDevices(brand, deviceResponse -> {
+                try {
+                    exportWriter.write(deviceResponse);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
     @GetMapping("{id}")
     public ResponseEntity<DeviceResponse> getDeviceById(@PathVariable UUID id) {
         log.debug("Getting device with ID \"{}\"", id);
@@ -67,41 +455,83 @@ public class DeviceController {
         deviceResponse.add(linkTo(methodOn(DeviceController.class)
                 .getDeviceById(deviceResponse.getId()))
                 .withSelfRel());
-        return ResponseEntity.ok(deviceResponse);
+        return withETag(ResponseEntity.ok(), deviceResponse.getVersion()).body(deviceResponse);
+    }
+
+    @GetMapping("{id}/status")
+    public ResponseEntity<DeviceWriteStatus> getDeviceWriteStatus(@PathVariable UUID id) {
+        log.debug("Getting write status of device with ID \"{}\"", id);
+        return ResponseEntity.ok(deviceWriteBehindService.getWriteStatus(id));
+    }
+
+    @GetMapping(value = "{id}", produces = {PLAIN_JSON_VALUE, APPLICATION_CBOR_VALUE, PROTOBUF_VALUE})
+    public ResponseEntity<PlainDeviceResponse> getPlainDeviceById(@PathVariable UUID id, NativeWebRequest request) {
+        log.debug("Getting device with ID \"{}\" as plain JSON", id);
+        PlainDeviceResponse deviceResponse = toPlain(deviceService.getDeviceByIdentifier(id));
+        return withETag(ResponseEntity.ok(), deviceResponse.getVersion(), negotiatedRepresentation(request))
+                .body(deviceResponse);
     }
 
     @PutMapping("{id}")
     public ResponseEntity<Object> updateDevice(@PathVariable UUID id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                               String ifMatch,
                                                @NonNull @RequestBody DeviceRequest deviceRequest) {
         log.debug("Updating device with ID \"{}\", with the following fields: {}", id, deviceRequest);
-        DeviceResponse deviceResponse = deviceService.updateDevice(id, deviceRequest);
+        DeviceResponse deviceResponse = deviceService.updateDevice(id, deviceRequest, parseETagVersion(ifMatch));
         deviceResponse.add(linkTo(methodOn(DeviceController.class)
                 .getDeviceById(deviceResponse.getId()))
                 .withSelfRel());
-        return ResponseEntity.ok(deviceResponse);
+        return withETag(ResponseEntity.ok(), deviceResponse.getVersion()).body(deviceResponse);
+    }
+
+    @PutMapping(value = "{id}", produces = {PLAIN_JSON_VALUE, APPLICATION_CBOR_VALUE, PROTOBUF_VALUE})
+    public ResponseEntity<PlainDeviceResponse> updatePlainDevice(@PathVariable UUID id,
+                                                                 @RequestHeader(value = HttpHeaders.IF_MATCH,
+                                                                         required = false) String ifMatch,
+                                                                 @NonNull @RequestBody DeviceRequest deviceRequest,
+                                                                 NativeWebRequest request) {
+        log.debug("Updating device with ID \"{}\" as plain JSON, with the following fields: {}", id, deviceRequest);
+        PlainDeviceResponse deviceResponse = toPlain(deviceService.updateDevice(id, deviceRequest,
+                parseETagVersion(ifMatch)));
+        return withETag(ResponseEntity.ok(), deviceResponse.getVersion(), negotiatedRepresentation(request))
+                .body(deviceResponse);
     }
 
     @DeleteMapping("{id}")
-    public ResponseEntity<DeviceResponse> deleteDevice(@PathVariable UUID id) {
+    public ResponseEntity<DeviceResponse> deleteDevice(@PathVariable UUID id,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                       String ifMatch) {
         log.debug("Deleting device with ID \"{}\"", id);
-        deviceService.deleteDevice(id);
+        deviceService.deleteDevice(id, parseETagVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
 
     @ExceptionHandler
-    public ResponseEntity<ErrorResponse> handleDeviceException(DeviceException e) {
-        log.error("Error performing request:", e);
-        ResponseEntity.BodyBuilder errorBuilder = e instanceof DeviceNotFoundException ?
-                ResponseEntity.status(HttpStatus.NOT_FOUND) : ResponseEntity.badRequest();
-        return errorBuilder.body(ErrorResponse.builder()
+    public ResponseEntity<?> handleDeviceException(DeviceException e, NativeWebRequest request) {
+        deviceErrorReporter.report(e);
+        List<MediaType> requestedMediaTypes;
+        try {
+            requestedMediaTypes = contentNegotiationManager.resolveMediaTypes(request);
+        } catch (HttpMediaTypeNotAcceptableException ex) {
+            requestedMediaTypes = List.of(MediaType.ALL);
+        }
+        return deviceErrorReporter.toResponseEntity(e, requestedMediaTypes);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleUnavailableException(CannotCreateTransactionException e) {
+        deviceErrorReporter.logError(e);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ErrorResponse.builder()
                         .message(e.getClass().getSimpleName())
-                        .description(e.getMessage())
+                        .description("No database connection became available in time.")
                         .build());
     }
 
     @ExceptionHandler
     public ResponseEntity<ErrorResponse> handleInputBodyException(HttpMessageNotReadableException e) {
-        log.error("Error performing request:", e);
+        deviceErrorReporter.logError(e);
         return ResponseEntity.badRequest()
                 .body(ErrorResponse.builder()
                         .message(e.getClass().getSimpleName())
@@ -111,7 +541,7 @@ public class DeviceController {
 
     @ExceptionHandler
     public ResponseEntity<ErrorResponse> handleInputPathParamException(MethodArgumentTypeMismatchException e) {
-        log.error("Error performing request:", e);
+        deviceErrorReporter.logError(e);
         return ResponseEntity.badRequest()
                 .body(ErrorResponse.builder()
                         .message(e.getClass().getSimpleName())
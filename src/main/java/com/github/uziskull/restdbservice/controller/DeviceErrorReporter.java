@@ -0,0 +1,149 @@
+package com.github.uziskull.restdbservice.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import com.github.uziskull.restdbservice.model.dto.ErrorResponse;
+import com.github.uziskull.restdbservice.model.exception.DeviceException;
+import com.github.uziskull.restdbservice.model.exception.DeviceNotFoundException;
+import com.github.uziskull.restdbservice.model.exception.DeviceQueueFullException;
+import com.github.uziskull.restdbservice.model.exception.DeviceVersionMismatchException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Error path shared by the device controllers. Errors are logged at most {@code devices.error-log.max-per-interval}
+ * times per exception type and interval, with the number of skipped ones. Device errors are also counted per type and,
+ * as their message is fixed per type, answered with a JSON body serialized only once.
+ */
+@Component
+@Slf4j
+public class DeviceErrorReporter {
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int maxLogsPerInterval;
+    private final long logIntervalNanos;
+    private final Map<Class<?>, LogLimit> logLimits = new ConcurrentHashMap<>();
+    private final Map<Class<?>, DeviceError> deviceErrors = new ConcurrentHashMap<>();
+
+    public DeviceErrorReporter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                               DeviceProperties deviceProperties) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.maxLogsPerInterval = deviceProperties.getErrorLog().getMaxPerInterval();
+        this.logIntervalNanos = deviceProperties.getErrorLog().getInterval().toNanos();
+    }
+
+    static HttpStatus statusOf(DeviceException e) {
+        return e instanceof DeviceNotFoundException ? HttpStatus.NOT_FOUND :
+                e instanceof DeviceVersionMismatchException ? HttpStatus.PRECONDITION_FAILED :
+                e instanceof DeviceQueueFullException ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.BAD_REQUEST;
+    }
+
+    /**
+     * Device errors are expected outcomes of client requests and carry no stack trace, so they are logged as a
+     * single warning line.
+     */
+    public void report(@NonNull DeviceException e) {
+        deviceError(e).counter().increment();
+        long skipped = logLimit(e).tryAcquire(maxLogsPerInterval, logIntervalNanos);
+        if (skipped >= 0) {
+            log.warn("Error performing request: {}: {}{}", e.getClass().getSimpleName(), e.getMessage(),
+                    skippedSuffix(skipped));
+        }
+    }
+
+    public void logError(@NonNull Exception e) {
+        long skipped = logLimit(e).tryAcquire(maxLogsPerInterval, logIntervalNanos);
+        if (skipped >= 0) {
+            log.error("Error performing request{}:", skippedSuffix(skipped), e);
+        }
+    }
+
+    /**
+     * Answers with the pre-serialized JSON body when JSON is what the client asked for first, or leaves the
+     * {@link ErrorResponse} to the message converters otherwise (CBOR and protobuf).
+     *
+     * @param requestedMediaTypes the requested media types, sorted by preference
+     */
+    public ResponseEntity<?> toResponseEntity(@NonNull DeviceException e, List<MediaType> requestedMediaTypes) {
+        DeviceError deviceError = deviceError(e);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(statusOf(e));
+        MediaType jsonMediaType = jsonMediaType(requestedMediaTypes);
+        return jsonMediaType == null ? response.body(deviceError.errorResponse()) :
+                response.contentType(jsonMediaType).body(deviceError.body());
+    }
+
+    private static MediaType jsonMediaType(List<MediaType> requestedMediaTypes) {
+        if (requestedMediaTypes == null || requestedMediaTypes.isEmpty()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType requested = requestedMediaTypes.get(0);
+        if (requested.isWildcardSubtype()) {
+            return requested.includes(MediaType.APPLICATION_JSON) ? MediaType.APPLICATION_JSON : null;
+        }
+        return MediaType.APPLICATION_JSON.equalsTypeAndSubtype(requested)
+                || "json".equals(requested.getSubtypeSuffix()) ? requested.removeQualityValue() : null;
+    }
+
+    private static String skippedSuffix(long skipped) {
+        return skipped == 0 ? "" : " (" + skipped + " similar errors not logged)";
+    }
+
+    private LogLimit logLimit(Exception e) {
+        return logLimits.computeIfAbsent(e.getClass(), type -> new LogLimit(new AtomicLong(System.nanoTime()),
+                new AtomicInteger(), new LongAdder()));
+    }
+
+    private DeviceError deviceError(DeviceException e) {
+        return deviceErrors.computeIfAbsent(e.getClass(), type -> {
+            ErrorResponse errorResponse = ErrorResponse.builder()
+                    .message(type.getSimpleName())
+                    .description(e.getMessage())
+                    .build();
+            try {
+                return new DeviceError(errorResponse, objectMapper.writeValueAsBytes(errorResponse),
+                        Counter.builder(DeviceController.ERROR_METRIC_NAME)
+                                .tag("exception", type.getSimpleName())
+                                .register(meterRegistry));
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+    }
+
+    private record DeviceError(ErrorResponse errorResponse, byte[] body, Counter counter) {
+    }
+
+    private record LogLimit(AtomicLong intervalStart, AtomicInteger logged, LongAdder skipped) {
+
+        /**
+         * @return how many errors were skipped since the last one logged, or -1 if this one is to be skipped as well
+         */
+        long tryAcquire(int maxPerInterval, long intervalNanos) {
+            long now = System.nanoTime();
+            long start = intervalStart.get();
+            if (now - start >= intervalNanos && intervalStart.compareAndSet(start, now)) {
+                logged.set(0);
+            }
+            if (logged.incrementAndGet() > maxPerInterval) {
+                skipped.increment();
+                return -1;
+            }
+            return skipped.sumThenReset();
+        }
+    }
+}
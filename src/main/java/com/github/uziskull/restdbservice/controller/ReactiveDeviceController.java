@@ -0,0 +1,152 @@
+package com.github.uziskull.restdbservice.controller;
+
+import com.github.uziskull.restdbservice.model.dto.BrandMatch;
+import com.github.uziskull.restdbservice.model.dto.BulkDeviceResult;
+import com.github.uziskull.restdbservice.model.dto.DeviceLookupResult;
+import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.model.dto.ErrorResponse;
+import com.github.uziskull.restdbservice.model.exception.DeviceException;
+import com.github.uziskull.restdbservice.service.ReactiveDeviceService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.reactive.accept.RequestedContentTypeResolver;
+import org.springframework.web.server.NotAcceptableStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.reactive.WebFluxLinkBuilder.methodOn;
+
+@RestController
+@RequestMapping("api/v1/devices")
+@Profile("reactive")
+@AllArgsConstructor
+@Slf4j
+public class ReactiveDeviceController {
+
+    private final ReactiveDeviceService deviceService;
+    private final DeviceErrorReporter deviceErrorReporter;
+    private final RequestedContentTypeResolver contentTypeResolver;
+
+    private static <B extends ResponseEntity.HeadersBuilder<B>> B withETag(B builder, DeviceResponse deviceResponse) {
+        return deviceResponse.getVersion() == null ? builder :
+                builder.eTag("\"" + deviceResponse.getVersion() + "\"");
+    }
+
+    private static Mono<DeviceResponse> withSelfRel(DeviceResponse deviceResponse) {
+        return linkTo(methodOn(ReactiveDeviceController.class).getDeviceById(deviceResponse.getId()))
+                .withSelfRel()
+                .toMono()
+                .map(deviceResponse::add);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<DeviceResponse>> createDevice(@NonNull @RequestBody DeviceRequest deviceRequest) {
+        log.debug("Creating device: {}", deviceRequest);
+        return deviceService.addDevice(deviceRequest)
+                .flatMap(ReactiveDeviceController::withSelfRel)
+                .map(deviceResponse -> withETag(ResponseEntity.created(deviceResponse.getRequiredLink("self")
+                        .toUri()), deviceResponse).body(deviceResponse));
+    }
+
+    @PostMapping("bulk")
+    public Flux<BulkDeviceResult> createDevices(@NonNull @RequestBody List<DeviceRequest> deviceRequests) {
+        log.debug("Creating {} devices in bulk", deviceRequests.size());
+        return deviceService.addDevices(deviceRequests);
+    }
+
+    @PostMapping("lookup")
+    public Mono<DeviceLookupResult> lookupDevices(@NonNull @RequestBody List<UUID> ids) {
+        log.debug("Looking up {} devices by id", ids.size());
+        return deviceService.lookupDevices(ids);
+    }
+
+    @GetMapping
+    public Flux<DeviceResponse> getAllDevices(Pageable pageable) {
+        log.debug("Streaming all devices, with pagination: {}", pageable);
+        return deviceService.listAllDevices(pageable);
+    }
+
+    @GetMapping("brand/{brand}")
+    public Flux<DeviceResponse> getDevicesByBrand(@PathVariable String brand,
+                                                  @RequestParam(defaultValue = "EXACT") BrandMatch match,
+                                                  Pageable pageable) {
+        log.debug("Streaming all devices matching brand \"{}\" ({}), with pagination: {}", brand, match, pageable);
+        return deviceService.listDevicesByBrand(brand, match, pageable);
+    }
+
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DeviceResponse> exportDevicesAsNdjson(@RequestParam(required = false) String brand) {
+        log.debug("Exporting devices as NDJSON, from brand \"{}\"", brand);
+        return deviceService.exportDevices(brand);
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<DeviceResponse>> getDeviceById(@PathVariable UUID id) {
+        log.debug("Getting device with ID \"{}\"", id);
+        return deviceService.getDeviceByIdentifier(id)
+                .flatMap(ReactiveDeviceController::withSelfRel)
+                .map(deviceResponse -> withETag(ResponseEntity.ok(), deviceResponse).body(deviceResponse));
+    }
+
+    @PutMapping("{id}")
+    public Mono<ResponseEntity<DeviceResponse>> updateDevice(@PathVariable UUID id,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH,
+                                                                     required = false) String ifMatch,
+                                                             @NonNull @RequestBody DeviceRequest deviceRequest) {
+        log.debug("Updating device with ID \"{}\", with the following fields: {}", id, deviceRequest);
+        return Mono.defer(() -> deviceService.updateDevice(id, deviceRequest,
+                        DeviceController.parseETagVersion(ifMatch)))
+                .flatMap(ReactiveDeviceController::withSelfRel)
+                .map(deviceResponse -> withETag(ResponseEntity.ok(), deviceResponse).body(deviceResponse));
+    }
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<Void>> deleteDevice(@PathVariable UUID id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                   String ifMatch) {
+        log.debug("Deleting device with ID \"{}\"", id);
+        return Mono.defer(() -> deviceService.deleteDevice(id, DeviceController.parseETagVersion(ifMatch)))
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<?> handleDeviceException(DeviceException e, ServerWebExchange exchange) {
+        deviceErrorReporter.report(e);
+        List<MediaType> requestedMediaTypes;
+        try {
+            requestedMediaTypes = contentTypeResolver.resolveMediaTypes(exchange);
+        } catch (NotAcceptableStatusException ex) {
+            requestedMediaTypes = List.of(MediaType.ALL);
+        }
+        return deviceErrorReporter.toResponseEntity(e, requestedMediaTypes);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleInputException(ServerWebInputException e) {
+        deviceErrorReporter.logError(e);
+        String description = e.getCause() instanceof TypeMismatchException && e.getMethodParameter() != null ?
+                "The following request path parameter was unable to be parsed: \"" +
+                        e.getMethodParameter().getParameterName() + "\"" :
+                "The request body was unable to be parsed.";
+        return ResponseEntity.badRequest()
+                .body(ErrorResponse.builder()
+                        .message(e.getClass().getSimpleName())
+                        .description(description)
+                        .build());
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.uziskull.restdbservice.controller;
+
+import com.github.uziskull.restdbservice.datasource.ReadRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Lets clients read their own writes when reads go to replicas: a request that may write sets a cookie lasting
+ * {@code devices.replicas.stickiness}, and every request carrying it reads from the primary, whichever node of the
+ * service handles it. POSTs that only read, like batch lookups, leave the cookie alone.
+ */
+@AllArgsConstructor
+public class ReplicaStickinessFilter extends OncePerRequestFilter {
+    static final String COOKIE_NAME = "devices-primary";
+    private static final Set<String> READ_ONLY_POSTS = Set.of("/api/v1/devices/lookup");
+
+    private final Duration stickiness;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (mayWrite(request)) {
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE_NAME, "1")
+                    .path("/")
+                    .maxAge(stickiness)
+                    .httpOnly(true)
+                    .build()
+                    .toString());
+        } else if (!hasCookie(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ReadRouting.pinToPrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadRouting.unpin();
+        }
+    }
+
+    private static boolean mayWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)) {
+            return false;
+        }
+        return !HttpMethod.POST.matches(method)
+                || !READ_ONLY_POSTS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    private static boolean hasCookie(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.uziskull.restdbservice.controller;
+
+import com.github.uziskull.restdbservice.cache.SerializedResponse;
+import com.github.uziskull.restdbservice.cache.SerializedResponseCache;
+import com.github.uziskull.restdbservice.cache.SerializedResponseKey;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Serves the single device and brand listing reads from {@link SerializedResponseCache}, writing the headers and bytes
+ * of an earlier identical response (gzipped when the client accepts it) without going through the controller and its
+ * serialization. Misses go through as usual and their successful responses are cached.
+ */
+@AllArgsConstructor
+public class SerializedResponseFilter extends OncePerRequestFilter {
+    private static final String DEVICE_PATH_PREFIX = "/api/v1/devices/";
+    private static final String BRAND_PATH_PREFIX = DEVICE_PATH_PREFIX + "brand/";
+    private static final int UUID_LENGTH = 36;
+    private static final String GZIP = "gzip";
+    // Written for each response on its own, or specific to the client it was written for
+    private static final Set<String> UNCACHED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        UNCACHED_HEADERS.addAll(Set.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LENGTH,
+                HttpHeaders.CONTENT_ENCODING, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.DATE, HttpHeaders.SET_COOKIE));
+    }
+
+    private final SerializedResponseCache serializedResponseCache;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !serializedResponseCache.isEnabled() || !HttpMethod.GET.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        SerializedResponseKey key = toKey(request);
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        SerializedResponse cached = serializedResponseCache.get(key);
+        if (cached != null) {
+            response.setContentType(cached.getContentType());
+            cached.getHeaders().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            addVary(cached, response);
+            if (cached.getETag() != null
+                    && new ServletWebRequest(request, response).checkNotModified(cached.getETag())) {
+                return;
+            }
+            writeBody(cached, request, response);
+            return;
+        }
+
+        long generation = serializedResponseCache.generation(key);
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, responseWrapper);
+        if (responseWrapper.getStatus() != HttpServletResponse.SC_OK || responseWrapper.getContentType() == null
+                || request.isAsyncStarted()) {
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : responseWrapper.getHeaderNames()) {
+            if (!UNCACHED_HEADERS.contains(name)) {
+                headers.addAll(name, new ArrayList<>(responseWrapper.getHeaders(name)));
+            }
+        }
+        SerializedResponse serialized = new SerializedResponse(responseWrapper.getContentType(), headers,
+                responseWrapper.getContentAsByteArray());
+        serializedResponseCache.put(key, serialized, generation);
+        addVary(serialized, response);
+        writeBody(serialized, request, response);
+    }
+
+    private static SerializedResponseKey toKey(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(DEVICE_PATH_PREFIX)) {
+            return null;
+        }
+        String url = request.getQueryString() == null ? request.getRequestURL().toString() :
+                request.getRequestURL().append('?').append(request.getQueryString()).toString();
+        String accept = Objects.requireNonNullElse(request.getHeader(HttpHeaders.ACCEPT), "");
+        if (path.startsWith(BRAND_PATH_PREFIX)) {
+            String brand = path.substring(BRAND_PATH_PREFIX.length());
+            // Brand matching other than exact spans brands, which are invalidated separately
+            if (brand.isEmpty() || brand.indexOf('/') >= 0 || request.getParameter("match") != null) {
+                return null;
+            }
+            return SerializedResponseKey.brand(UriUtils.decode(brand, StandardCharsets.UTF_8), url, accept);
+        }
+        String id = path.substring(DEVICE_PATH_PREFIX.length());
+        if (id.length() != UUID_LENGTH) {
+            return null;
+        }
+        try {
+            return SerializedResponseKey.device(UUID.fromString(id), url, accept);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void writeBody(SerializedResponse serialized, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        byte[] body = serialized.getBody();
+        if (serializedResponseCache.isCompressible(serialized) && acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            body = serialized.getGzippedBody();
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    // Responses are cached per Accept header, and sent gzipped or not per Accept-Encoding
+    private void addVary(SerializedResponse serialized, HttpServletResponse response) {
+        addVary(response, HttpHeaders.ACCEPT);
+        if (serializedResponseCache.isCompressible(serialized)) {
+            addVary(response, HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+
+    private static void addVary(HttpServletResponse response, String header) {
+        for (String vary : response.getHeaders(HttpHeaders.VARY)) {
+            for (String varied : vary.split(",")) {
+                if (varied.trim().equalsIgnoreCase(header) || "*".equals(varied.trim())) {
+                    return;
+                }
+            }
+        }
+        response.addHeader(HttpHeaders.VARY, header);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        for (Enumeration<String> values = request.getHeaders(HttpHeaders.ACCEPT_ENCODING); values.hasMoreElements(); ) {
+            for (String coding : values.nextElement().split(",")) {
+                String[] parts = coding.split(";");
+                if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+                    return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+}
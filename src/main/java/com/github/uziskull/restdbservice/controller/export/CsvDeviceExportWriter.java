@@ -0,0 +1,51 @@
+package com.github.uziskull.restdbservice.controller.export;
+
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public class CsvDeviceExportWriter implements DeviceExportWriter {
+    private static final String HEADER = "id,name,brand,creationTimestamp";
+
+    private final Writer writer;
+
+    public CsvDeviceExportWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(DeviceResponse deviceResponse) throws IOException {
+        writer.write(deviceResponse.getId().toString());
+        writer.write(',');
+        writeEscaped(deviceResponse.getName());
+        writer.write(',');
+        writeEscaped(deviceResponse.getBrand());
+        writer.write(',');
+        if (deviceResponse.getCreationTimestamp() != null) {
+            writer.write(deviceResponse.getCreationTimestamp().toString());
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
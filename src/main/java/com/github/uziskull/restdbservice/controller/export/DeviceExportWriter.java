@@ -0,0 +1,10 @@
+package com.github.uziskull.restdbservice.controller.export;
+
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface DeviceExportWriter extends Closeable {
+    void write(DeviceResponse deviceResponse) throws IOException;
+}
@@ -0,0 +1,39 @@
+package com.github.uziskull.restdbservice.controller.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class NdjsonDeviceExportWriter implements DeviceExportWriter {
+    private final JsonGenerator generator;
+
+    public NdjsonDeviceExportWriter(JsonFactory jsonFactory, OutputStream outputStream) throws IOException {
+        this.generator = jsonFactory.createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+    }
+
+    @Override
+    public void write(DeviceResponse deviceResponse) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", deviceResponse.getId().toString());
+        generator.writeStringField("name", deviceResponse.getName());
+        generator.writeStringField("brand", deviceResponse.getBrand());
+        if (deviceResponse.getCreationTimestamp() == null) {
+            generator.writeNullField("creationTimestamp");
+        } else {
+            generator.writeStringField("creationTimestamp", deviceResponse.getCreationTimestamp().toString());
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.writeRaw('\n');
+        generator.close();
+    }
+}
@@ -0,0 +1,219 @@
+package com.github.uziskull.restdbservice.controller.format;
+
+import com.github.uziskull.restdbservice.model.dto.CursorPage;
+import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
+import com.github.uziskull.restdbservice.model.dto.ErrorResponse;
+import com.github.uziskull.restdbservice.model.dto.PlainDeviceResponse;
+import com.github.uziskull.restdbservice.model.dto.PlainPage;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads and writes the messages of {@code src/main/proto/devices.proto} directly on the protobuf wire format, so
+ * the plain DTOs are encoded without generated classes or an intermediate message copy.
+ */
+public class DeviceProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+
+    private static final int UUID_BYTES = 16;
+    private static final int READ_BUFFER_SIZE = 256;
+    private static final int MAX_WRITE_BUFFER_SIZE = 8192;
+
+    public DeviceProtobufHttpMessageConverter() {
+        super(MediaType.parseMediaType(PROTOBUF_VALUE));
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return DeviceRequest.class == clazz || PlainDeviceResponse.class == clazz || PlainPage.class == clazz
+                || CursorPage.class == clazz || ErrorResponse.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(@NonNull Class<?> clazz, MediaType mediaType) {
+        return DeviceRequest.class == clazz && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@NonNull Class<?> clazz, MediaType mediaType) {
+        return DeviceRequest.class != clazz && supports(clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    @NonNull
+    protected Object readInternal(@NonNull Class<?> clazz, @NonNull HttpInputMessage inputMessage)
+            throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(inputMessage.getBody(), READ_BUFFER_SIZE);
+        DeviceRequest deviceRequest = new DeviceRequest();
+        try {
+            for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+                switch (tag) {
+                    case 1 << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED -> deviceRequest.setName(input.readString());
+                    case 2 << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED -> deviceRequest.setBrand(input.readString());
+                    default -> input.skipField(tag);
+                }
+            }
+        } catch (InvalidProtocolBufferException e) {
+            throw new HttpMessageNotReadableException("Invalid protobuf DeviceRequest: " + e.getMessage(), e,
+                    inputMessage);
+        }
+        return deviceRequest;
+    }
+
+    @Override
+    protected void writeInternal(@NonNull Object value, @NonNull HttpOutputMessage outputMessage)
+            throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody(),
+                Math.min(messageSize(value), MAX_WRITE_BUFFER_SIZE));
+        switch (value) {
+            case PlainDeviceResponse device -> writeDeviceFields(output, device);
+            case PlainPage<?> page -> {
+                writeDevices(output, page.getContent());
+                if (page.getPage() != null) {
+                    output.writeTag(2, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                    output.writeUInt32NoTag(metadataSize(page.getPage()));
+                    writeMetadataFields(output, page.getPage());
+                }
+            }
+            case CursorPage<?> page -> {
+                writeDevices(output, page.getContent());
+                writeString(output, 3, page.getNextCursor());
+            }
+            case ErrorResponse error -> {
+                writeString(output, 1, error.getMessage());
+                writeString(output, 2, error.getDescription());
+            }
+            default -> throw new HttpMessageNotWritableException("Unsupported protobuf type: " + value.getClass());
+        }
+        output.flush();
+    }
+
+    private static int messageSize(Object value) {
+        return switch (value) {
+            case PlainDeviceResponse device -> deviceSize(device);
+            case PlainPage<?> page -> devicesSize(page.getContent()) + (page.getPage() == null ? 0
+                    : CodedOutputStream.computeTagSize(2) + lengthDelimitedSize(metadataSize(page.getPage())));
+            case CursorPage<?> page -> devicesSize(page.getContent()) + stringSize(3, page.getNextCursor());
+            case ErrorResponse error -> stringSize(1, error.getMessage()) + stringSize(2, error.getDescription());
+            default -> 0;
+        };
+    }
+
+    private static int lengthDelimitedSize(int size) {
+        return CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+    }
+
+    private static int devicesSize(List<?> devices) {
+        int size = 0;
+        for (Object device : devices) {
+            size += CodedOutputStream.computeTagSize(1) + lengthDelimitedSize(deviceSize((PlainDeviceResponse) device));
+        }
+        return size;
+    }
+
+    private static void writeDevices(CodedOutputStream output, List<?> devices) throws IOException {
+        for (Object device : devices) {
+            PlainDeviceResponse deviceResponse = (PlainDeviceResponse) device;
+            output.writeTag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(deviceSize(deviceResponse));
+            writeDeviceFields(output, deviceResponse);
+        }
+    }
+
+    private static int deviceSize(PlainDeviceResponse device) {
+        int size = stringSize(2, device.getName()) + stringSize(3, device.getBrand());
+        if (device.getId() != null) {
+            size += CodedOutputStream.computeTagSize(1) + lengthDelimitedSize(UUID_BYTES);
+        }
+        if (device.getCreationTimestamp() != null) {
+            size += CodedOutputStream.computeInt64Size(4, device.getCreationTimestamp().toEpochMilli());
+        }
+        return size;
+    }
+
+    private static void writeDeviceFields(CodedOutputStream output, PlainDeviceResponse device) throws IOException {
+        if (device.getId() != null) {
+            output.writeTag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(UUID_BYTES);
+            writeUuid(output, device.getId());
+        }
+        writeString(output, 2, device.getName());
+        writeString(output, 3, device.getBrand());
+        if (device.getCreationTimestamp() != null) {
+            output.writeInt64(4, device.getCreationTimestamp().toEpochMilli());
+        }
+    }
+
+    private static void writeUuid(CodedOutputStream output, UUID uuid) throws IOException {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            output.write((byte) (msb >>> shift));
+        }
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            output.write((byte) (lsb >>> shift));
+        }
+    }
+
+    private static int metadataSize(PlainPage.Metadata metadata) {
+        int size = 0;
+        if (metadata.getSize() != 0) {
+            size += CodedOutputStream.computeInt32Size(1, metadata.getSize());
+        }
+        if (metadata.getNumber() != 0) {
+            size += CodedOutputStream.computeInt32Size(2, metadata.getNumber());
+        }
+        if (metadata.isHasNext()) {
+            size += CodedOutputStream.computeBoolSize(3, true);
+        }
+        if (metadata.getTotalElements() != null) {
+            size += CodedOutputStream.computeInt64Size(4, metadata.getTotalElements());
+        }
+        if (metadata.getTotalPages() != null) {
+            size += CodedOutputStream.computeInt32Size(5, metadata.getTotalPages());
+        }
+        return size;
+    }
+
+    private static void writeMetadataFields(CodedOutputStream output, PlainPage.Metadata metadata)
+            throws IOException {
+        if (metadata.getSize() != 0) {
+            output.writeInt32(1, metadata.getSize());
+        }
+        if (metadata.getNumber() != 0) {
+            output.writeInt32(2, metadata.getNumber());
+        }
+        if (metadata.isHasNext()) {
+            output.writeBool(3, true);
+        }
+        if (metadata.getTotalElements() != null) {
+            output.writeInt64(4, metadata.getTotalElements());
+        }
+        if (metadata.getTotalPages() != null) {
+            output.writeInt32(5, metadata.getTotalPages());
+        }
+    }
+
+    private static void writeString(CodedOutputStream output, int fieldNumber, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            output.writeString(fieldNumber, value);
+        }
+    }
+
+    private static int stringSize(int fieldNumber, String value) {
+        return value == null || value.isEmpty() ? 0 : CodedOutputStream.computeStringSize(fieldNumber, value);
+    }
+}
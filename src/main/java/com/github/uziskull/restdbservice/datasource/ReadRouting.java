@@ -0,0 +1,48 @@
+package com.github.uziskull.restdbservice.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the reads of the current thread that may run on a read replica, for {@link ReplicaRoutingDataSource}. Only
+ * connections obtained while in {@link #onReplica} are routed, so a read joining a transaction that already holds a
+ * primary connection stays on the primary.
+ */
+public final class ReadRouting {
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static <T> T onReplica(Supplier<T> read) {
+        if (isPinnedToPrimary() || isReplicaRead()) {
+            return read.get();
+        }
+        REPLICA_READ.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            REPLICA_READ.remove();
+        }
+    }
+
+    public static boolean isReplicaRead() {
+        return REPLICA_READ.get() != null;
+    }
+
+    /**
+     * Sends every read of the current thread to the primary until {@link #unpin()}, for clients that must see
+     * their own writes.
+     */
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+}
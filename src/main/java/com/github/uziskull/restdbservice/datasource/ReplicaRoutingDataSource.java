@@ -0,0 +1,139 @@
+package com.github.uziskull.restdbservice.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out replica connections, round-robin, for the reads marked with {@link ReadRouting#onReplica}, and primary
+ * connections for everything else. A replica failing to hand out a connection is skipped until a health check finds
+ * it valid again; without any healthy replica, reads go to the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends DelegatingDataSource implements MeterBinder, AutoCloseable {
+    private final List<Replica> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final int validationTimeoutSeconds;
+    private final ScheduledExecutorService healthChecker;
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primaryDataSource, Map<String, DataSource> replicaDataSources,
+                                    Duration healthCheckInterval, Duration validationTimeout) {
+        super(primaryDataSource);
+        this.replicas = replicaDataSources.entrySet().stream()
+                .map(replica -> new Replica(replica.getKey(), replica.getValue(), new AtomicBoolean(true)))
+                .toList();
+        this.validationTimeoutSeconds = (int) Math.max(1, validationTimeout.toSeconds());
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, healthCheckInterval.toNanos(),
+                healthCheckInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection() throws SQLException {
+        if (ReadRouting.isReplicaRead()) {
+            Connection connection = getReplicaConnection();
+            if (connection != null) {
+                replicaReads.increment();
+                return connection;
+            }
+            primaryReads.increment();
+        }
+        return obtainTargetDataSource().getConnection();
+    }
+
+    private Connection getReplicaConnection() {
+        int first = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((first + i) % replicas.size());
+            if (!replica.healthy().get()) {
+                continue;
+            }
+            try {
+                return replica.dataSource().getConnection();
+            } catch (SQLException | RuntimeException e) {
+                if (replica.healthy().compareAndSet(true, false)) {
+                    log.warn("Read replica {} is down, reading from the others or the primary: {}", replica.name(),
+                            e.getMessage());
+                }
+            }
+        }
+        return null;
+    }
+
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource().getConnection()) {
+                healthy = connection.isValid(validationTimeoutSeconds);
+            } catch (SQLException | RuntimeException e) {
+                healthy = false;
+            }
+            boolean wasHealthy = replica.healthy().getAndSet(healthy);
+            if (healthy && !wasHealthy) {
+                log.info("Read replica {} is back up", replica.name());
+            } else if (!healthy && wasHealthy) {
+                log.warn("Read replica {} failed its health check", replica.name());
+            }
+        }
+    }
+
+    /**
+     * Closes the replica pools and the primary one: this wrapper replaces the primary pool as the datasource bean, so
+     * the context only closes that pool through it.
+     */
+    @Override
+    public void close() throws Exception {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        FunctionCounter.builder("devices.datasource.replica.reads", replicaReads, LongAdder::sum)
+                .description("Reads allowed on a replica, by where they were served")
+                .tag("target", "replica")
+                .register(registry);
+        FunctionCounter.builder("devices.datasource.replica.reads", primaryReads, LongAdder::sum)
+                .description("Reads allowed on a replica, by where they were served")
+                .tag("target", "primary")
+                .register(registry);
+        Gauge.builder("devices.datasource.replicas.healthy",
+                        () -> replicas.stream().filter(replica -> replica.healthy().get()).count())
+                .description("Read replicas currently considered healthy")
+                .register(registry);
+    }
+
+    private record Replica(String name, DataSource dataSource, AtomicBoolean healthy) {
+    }
+}
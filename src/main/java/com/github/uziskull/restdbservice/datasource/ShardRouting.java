@@ -0,0 +1,47 @@
+package com.github.uziskull.restdbservice.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the shard the current thread works on, for {@link ShardRoutingDataSource}. Work outside of
+ * {@link #onShard} goes to shard 0, the primary datasource.
+ */
+public final class ShardRouting {
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardRouting() {
+    }
+
+    /**
+     * @throws IllegalStateException if called for another shard within a transaction, whose connection is bound to
+     *                               the shard it started on
+     */
+    public static <T> T onShard(int shard, Supplier<T> action) {
+        Integer previous = SHARD.get();
+        int current = previous == null ? 0 : previous;
+        if (current == shard && previous != null) {
+            return action.get();
+        }
+        if (current != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Can't switch from shard " + current + " to shard " + shard
+                    + " within a transaction");
+        }
+        SHARD.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                SHARD.remove();
+            } else {
+                SHARD.set(previous);
+            }
+        }
+    }
+
+    public static int currentShard() {
+        Integer shard = SHARD.get();
+        return shard == null ? 0 : shard;
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.uziskull.restdbservice.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out connections to the shard selected with {@link ShardRouting#onShard}. The primary datasource is shard 0,
+ * which also serves everything not routed to a shard, such as schema management and health checks.
+ */
+public class ShardRoutingDataSource extends DelegatingDataSource implements MeterBinder, AutoCloseable {
+    private final List<DataSource> shards;
+    private final List<LongAdder> connections;
+
+    public ShardRoutingDataSource(DataSource primaryDataSource, List<DataSource> shardDataSources) {
+        super(primaryDataSource);
+        this.shards = new ArrayList<>(shardDataSources.size() + 1);
+        shards.add(primaryDataSource);
+        shards.addAll(shardDataSources);
+        this.connections = shards.stream().map(shard -> new LongAdder()).toList();
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection() throws SQLException {
+        int shard = ShardRouting.currentShard();
+        connections.get(shard).increment();
+        return shards.get(shard).getConnection();
+    }
+
+    /**
+     * Closes every shard's pool, the primary's included: this wrapper replaces the primary pool as the datasource
+     * bean, so the context only closes that pool through it.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            FunctionCounter.builder("devices.datasource.shard.connections", connections.get(shard), LongAdder::sum)
+                    .description("Connections handed out, by shard")
+                    .tag("shard", String.valueOf(shard))
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.uziskull.restdbservice.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@AllArgsConstructor
+public class StatementCountInterceptor implements AsyncHandlerInterceptor {
+    public static final String METRIC_NAME = "devices.db.statements";
+    private static final String COUNT_ATTRIBUTE = StatementCountInterceptor.class.getName() + ".count";
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        // Asynchronous requests are dispatched again once their result is ready, keeping counting from the first one
+        if (request.getAttribute(COUNT_ATTRIBUTE) instanceof AtomicInteger started) {
+            statementCounter.resume(started);
+        } else {
+            request.setAttribute(COUNT_ATTRIBUTE, statementCounter.start());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request,
+                                               @NonNull HttpServletResponse response, @NonNull Object handler) {
+        statementCounter.stop();
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRIC_NAME)
+                .description("SQL statements issued while handling a request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+                .register(meterRegistry)
+                .record(statementCounter.stop());
+    }
+}
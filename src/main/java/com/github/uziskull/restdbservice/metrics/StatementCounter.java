@@ -0,0 +1,55 @@
+package com.github.uziskull.restdbservice.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the statements prepared on threads bound to a count. A request binds one to its own thread, and
+ * {@link #propagate} binds it to the tasks it hands over to other threads, such as shard queries and streamed
+ * responses. Statements of the write-behind writer belong to no request and are not counted.
+ */
+public class StatementCounter implements StatementInspector {
+    private final ThreadLocal<AtomicInteger> count = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger current = count.get();
+        if (current != null) {
+            current.incrementAndGet();
+        }
+        return sql;
+    }
+
+    public AtomicInteger start() {
+        AtomicInteger started = new AtomicInteger();
+        count.set(started);
+        return started;
+    }
+
+    public void resume(AtomicInteger started) {
+        count.set(started);
+    }
+
+    public int stop() {
+        AtomicInteger current = count.get();
+        count.remove();
+        return current == null ? 0 : current.get();
+    }
+
+    public Runnable propagate(Runnable task) {
+        AtomicInteger current = count.get();
+        if (current == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = count.get();
+            count.set(current);
+            try {
+                task.run();
+            } finally {
+                count.set(previous);
+            }
+        };
+    }
+}
@@ -1,20 +1,27 @@
 package com.github.uziskull.restdbservice.model.dao;
 
+import com.github.uziskull.restdbservice.model.dao.id.DeviceId;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
+import java.util.Locale;
 import java.util.UUID;
 
 @Entity(name = "device")
 @Table(uniqueConstraints = {
         @UniqueConstraint(columnNames = { "name", "brand" })
+}, indexes = {
+        @Index(name = "idx_device_brand", columnList = "brand, created_at, id"),
+        @Index(name = "idx_device_brand_normalized", columnList = "brand_normalized")
 })
 @Data
 public class DeviceDAO {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @DeviceId
     private UUID id;
 
     @Column(nullable = false)
@@ -23,7 +30,30 @@ public class DeviceDAO {
     @Column(nullable = false)
     private String brand;
 
+    @Setter(AccessLevel.NONE)
+    @Column(name = "brand_normalized", nullable = false)
+    private String brandNormalized;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private Instant creationTimestamp;
+
+    @Version
+    private Long version;
+
+    /**
+     * Identifier already handed out for a device not inserted yet, used by the identifier generator. Setting the
+     * identifier itself would make Hibernate take the device for a detached one.
+     */
+    @Transient
+    private UUID assignedId;
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+        this.brandNormalized = normalizeBrand(brand);
+    }
+
+    public static String normalizeBrand(String brand) {
+        return brand == null ? null : brand.toLowerCase(Locale.ROOT);
+    }
 }
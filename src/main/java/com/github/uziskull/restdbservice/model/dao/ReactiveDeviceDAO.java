@@ -0,0 +1,38 @@
+package com.github.uziskull.restdbservice.model.dao;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Table("device")
+@Data
+public class ReactiveDeviceDAO {
+    @Id
+    private UUID id;
+
+    private String name;
+
+    private String brand;
+
+    @Setter(AccessLevel.NONE)
+    @Column("brand_normalized")
+    private String brandNormalized;
+
+    @Column("created_at")
+    private Instant creationTimestamp;
+
+    @Version
+    private Long version;
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+        this.brandNormalized = DeviceDAO.normalizeBrand(brand);
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.uziskull.restdbservice.model.dao.id;
+
+import com.github.uziskull.restdbservice.model.dao.DeviceDAO;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+import java.util.Map;
+
+public class DeviceIdGenerator implements BeforeExecutionGenerator {
+    public static final String STRATEGY_SETTING = "devices.id-strategy";
+    public static final String SHARD_COUNT_SETTING = "devices.sharding.shard-count";
+
+    private final DeviceIdStrategy strategy;
+    private final int shardCount;
+
+    public DeviceIdGenerator(DeviceId config, Member idMember, CustomIdGeneratorCreationContext creationContext) {
+        Map<String, Object> settings = creationContext.getServiceRegistry()
+                .getService(ConfigurationService.class)
+                .getSettings();
+        Object configuredStrategy = settings.get(STRATEGY_SETTING);
+        this.strategy = configuredStrategy == null ?
+                DeviceIdStrategy.TIME_ORDERED : DeviceIdStrategy.valueOf(configuredStrategy.toString());
+        Object configuredShardCount = settings.get(SHARD_COUNT_SETTING);
+        this.shardCount = configuredShardCount == null ? 1 : Integer.parseInt(configuredShardCount.toString());
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        if (!(owner instanceof DeviceDAO deviceDAO)) {
+            return strategy.nextId();
+        }
+        return deviceDAO.getAssignedId() != null ? deviceDAO.getAssignedId() :
+                DeviceShardKey.nextId(strategy, deviceDAO.getName(), deviceDAO.getBrand(), shardCount);
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
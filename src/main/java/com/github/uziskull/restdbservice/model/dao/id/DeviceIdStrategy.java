@@ -0,0 +1,19 @@
+package com.github.uziskull.restdbservice.model.dao.id;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public enum DeviceIdStrategy {
+    RANDOM(UUID::randomUUID),
+    TIME_ORDERED(TimeOrderedUuidGenerator.INSTANCE::next);
+
+    private final Supplier<UUID> generator;
+
+    DeviceIdStrategy(Supplier<UUID> generator) {
+        this.generator = generator;
+    }
+
+    public UUID nextId() {
+        return generator.get();
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.uziskull.restdbservice.model.dao.id;
+
+import java.util.UUID;
+
+/**
+ * Places devices on shards. A device's shard is derived from its name and brand, so that devices that would violate
+ * the (name, brand) unique constraint always land on the same shard and are still rejected by it, and is then
+ * written into the 16 lowest (random) bits of its identifier, so that reads and writes by identifier go straight to
+ * the owning shard without a lookup.
+ */
+public final class DeviceShardKey {
+    private static final long SHARD_MASK = 0xFFFFL;
+
+    private DeviceShardKey() {
+    }
+
+    public static UUID nextId(DeviceIdStrategy strategy, String name, String brand, int shardCount) {
+        UUID id = strategy.nextId();
+        return shardCount > 1 ? withShard(id, shardOf(name, brand, shardCount)) : id;
+    }
+
+    public static UUID withShard(UUID id, int shard) {
+        return new UUID(id.getMostSignificantBits(), id.getLeastSignificantBits() & ~SHARD_MASK | shard);
+    }
+
+    public static int shardOf(UUID id, int shardCount) {
+        return (int) ((id.getLeastSignificantBits() & SHARD_MASK) % shardCount);
+    }
+
+    public static int shardOf(String name, String brand, int shardCount) {
+        // String hash codes alone spread similar names poorly, so they go through the murmur3 finalizer
+        int hash = name.hashCode() * 31 + brand.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, shardCount);
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.uziskull.restdbservice.model.dao.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates UUIDv7 values (RFC 9562): a 48-bit Unix epoch millisecond timestamp, followed by a 12-bit counter
+ * and 62 random bits. The timestamp and counter are advanced together atomically, so identifiers are strictly
+ * increasing across threads, even when many are generated within the same millisecond.
+ */
+public final class TimeOrderedUuidGenerator {
+    public static final TimeOrderedUuidGenerator INSTANCE = new TimeOrderedUuidGenerator();
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    private TimeOrderedUuidGenerator() {
+    }
+
+    public UUID next() {
+        long timestampAndCounter = nextTimestampAndCounter(System.currentTimeMillis());
+        long mostSignificantBits = (timestampAndCounter >>> COUNTER_BITS) << 16
+                | VERSION
+                | timestampAndCounter & ((1L << COUNTER_BITS) - 1);
+        long leastSignificantBits = random.nextLong() & RANDOM_MASK | VARIANT;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    private long nextTimestampAndCounter(long currentMillis) {
+        long fromClock = currentMillis << COUNTER_BITS;
+        return lastTimestampAndCounter.updateAndGet(last -> Math.max(last + 1, fromClock));
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.uziskull.restdbservice.model.dto;
+
+public enum BrandMatch {
+    EXACT,
+    IGNORE_CASE,
+    PREFIX
+}
@@ -0,0 +1,40 @@
+package com.github.uziskull.restdbservice.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.uziskull.restdbservice.model.exception.DeviceException;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkDeviceResult {
+    private Status status;
+    @JsonIgnoreProperties("links")
+    private DeviceResponse device;
+    private ErrorResponse error;
+
+    public static BulkDeviceResult created(DeviceResponse deviceResponse) {
+        return BulkDeviceResult.builder()
+                .status(Status.CREATED)
+                .device(deviceResponse)
+                .build();
+    }
+
+    public static BulkDeviceResult failed(Status status, DeviceException e) {
+        return BulkDeviceResult.builder()
+                .status(status)
+                .error(ErrorResponse.builder()
+                        .message(e.getClass().getSimpleName())
+                        .description(e.getMessage())
+                        .build())
+                .build();
+    }
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.uziskull.restdbservice.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+public class DeviceLookupResult {
+    @JsonIgnoreProperties("links")
+    private List<DeviceResponse> devices;
+    private List<UUID> missing;
+
+    public static DeviceLookupResult of(List<UUID> ids, Map<UUID, DeviceResponse> found) {
+        List<DeviceResponse> devices = new ArrayList<>(found.size());
+        List<UUID> missing = new ArrayList<>(ids.size() - found.size());
+        for (UUID id : ids) {
+            DeviceResponse deviceResponse = found.get(id);
+            if (deviceResponse != null) {
+                devices.add(deviceResponse);
+            } else {
+                missing.add(id);
+            }
+        }
+        return DeviceLookupResult.builder()
+                .devices(devices)
+                .missing(missing)
+                .build();
+    }
+}
@@ -1,6 +1,8 @@
 package com.github.uziskull.restdbservice.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.github.uziskull.restdbservice.model.dao.DeviceDAO;
+import com.github.uziskull.restdbservice.model.dao.ReactiveDeviceDAO;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.springframework.hateoas.RepresentationModel;
@@ -15,6 +17,8 @@ public class DeviceResponse extends RepresentationModel<DeviceResponse> {
     private String name;
     private String brand;
     private Instant creationTimestamp;
+    @JsonIgnore
+    private Long version;
 
     public static DeviceResponse fromDAO(DeviceDAO deviceDAO) {
         DeviceResponse deviceResponse = new DeviceResponse();
@@ -22,6 +26,17 @@ public class DeviceResponse extends RepresentationModel<DeviceResponse> {
         deviceResponse.setName(deviceDAO.getName());
         deviceResponse.setBrand(deviceDAO.getBrand());
         deviceResponse.setCreationTimestamp(deviceDAO.getCreationTimestamp());
+        deviceResponse.setVersion(deviceDAO.getVersion());
+        return deviceResponse;
+    }
+
+    public static DeviceResponse fromDAO(ReactiveDeviceDAO deviceDAO) {
+        DeviceResponse deviceResponse = new DeviceResponse();
+        deviceResponse.setId(deviceDAO.getId());
+        deviceResponse.setName(deviceDAO.getName());
+        deviceResponse.setBrand(deviceDAO.getBrand());
+        deviceResponse.setCreationTimestamp(deviceDAO.getCreationTimestamp());
+        deviceResponse.setVersion(deviceDAO.getVersion());
         return deviceResponse;
     }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.github.uziskull.restdbservice.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DeviceWriteStatus {
+    private UUID id;
+    private Status status;
+    private ErrorResponse error;
+
+    public static DeviceWriteStatus pending(UUID id) {
+        return DeviceWriteStatus.builder()
+                .id(id)
+                .status(Status.PENDING)
+                .build();
+    }
+
+    public static DeviceWriteStatus written(UUID id, BulkDeviceResult result) {
+        return DeviceWriteStatus.builder()
+                .id(id)
+                .status(Status.valueOf(result.getStatus().name()))
+                .error(result.getError())
+                .build();
+    }
+
+    public static DeviceWriteStatus failed(UUID id, Exception e) {
+        return DeviceWriteStatus.builder()
+                .id(id)
+                .status(Status.FAILED)
+                .error(ErrorResponse.builder()
+                        .message(e.getClass().getSimpleName())
+                        .description("The device could not be written.")
+                        .build())
+                .build();
+    }
+
+    public enum Status {
+        PENDING,
+        CREATED,
+        DUPLICATE,
+        INVALID,
+        FAILED
+    }
+}
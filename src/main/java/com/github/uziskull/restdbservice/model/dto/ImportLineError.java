@@ -0,0 +1,12 @@
+package com.github.uziskull.restdbservice.model.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ImportLineError {
+    private long line;
+    private BulkDeviceResult.Status status;
+    private ErrorResponse error;
+}
@@ -0,0 +1,18 @@
+package com.github.uziskull.restdbservice.model.dto;
+
+import lombok.Data;
+
+@Data
+public class ImportSummary {
+    private long inserted;
+    private long duplicate;
+    private long invalid;
+
+    public void count(BulkDeviceResult.Status status) {
+        switch (status) {
+            case CREATED -> inserted++;
+            case DUPLICATE -> duplicate++;
+            case INVALID -> invalid++;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.uziskull.restdbservice.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+public class PlainDeviceResponse {
+    private UUID id;
+    private String name;
+    private String brand;
+    private Instant creationTimestamp;
+    private String self;
+    @JsonIgnore
+    private Long version;
+
+    public static PlainDeviceResponse fromResponse(DeviceResponse deviceResponse, String selfPrefix) {
+        PlainDeviceResponse plainDeviceResponse = new PlainDeviceResponse();
+        plainDeviceResponse.setId(deviceResponse.getId());
+        plainDeviceResponse.setName(deviceResponse.getName());
+        plainDeviceResponse.setBrand(deviceResponse.getBrand());
+        plainDeviceResponse.setCreationTimestamp(deviceResponse.getCreationTimestamp());
+        plainDeviceResponse.setSelf(selfPrefix + deviceResponse.getId());
+        plainDeviceResponse.setVersion(deviceResponse.getVersion());
+        return plainDeviceResponse;
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.uziskull.restdbservice.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@Builder
+public class PlainPage<T> {
+    private List<T> content;
+    private Metadata page;
+
+    public static <S, T> PlainPage<T> of(Slice<S> slice, Function<S, T> mapper) {
+        return PlainPage.<T>builder()
+                .content(slice.getContent().stream().map(mapper).toList())
+                .page(Metadata.builder()
+                        .size(slice.getSize())
+                        .number(slice.getNumber())
+                        .hasNext(slice.hasNext())
+                        .totalElements(slice instanceof Page<S> page ? page.getTotalElements() : null)
+                        .totalPages(slice instanceof Page<S> page ? page.getTotalPages() : null)
+                        .build())
+                .build();
+    }
+
+    @Data
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Metadata {
+        private int size;
+        private int number;
+        private boolean hasNext;
+        private Long totalElements;
+        private Integer totalPages;
+    }
+}
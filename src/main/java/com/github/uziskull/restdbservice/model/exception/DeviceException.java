@@ -1,7 +1,11 @@
 package com.github.uziskull.restdbservice.model.exception;
 
+/**
+ * Base of the errors returned to clients. They are thrown as part of normal request handling, often in bursts (e.g. not
+ * found lookups retried by clients), so they don't fill in a stack trace.
+ */
 public abstract class DeviceException extends RuntimeException {
     public DeviceException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
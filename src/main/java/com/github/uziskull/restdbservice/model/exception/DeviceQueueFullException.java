@@ -0,0 +1,7 @@
+package com.github.uziskull.restdbservice.model.exception;
+
+public class DeviceQueueFullException extends DeviceException {
+    public DeviceQueueFullException() {
+        super("The device write queue is full or shutting down, please retry later.");
+    }
+}
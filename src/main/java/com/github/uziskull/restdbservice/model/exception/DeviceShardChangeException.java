@@ -0,0 +1,7 @@
+package com.github.uziskull.restdbservice.model.exception;
+
+public class DeviceShardChangeException extends DeviceException {
+    public DeviceShardChangeException() {
+        super("The new name and brand would move the device to another shard, which is not supported.");
+    }
+}
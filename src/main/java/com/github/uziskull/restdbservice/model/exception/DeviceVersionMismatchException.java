@@ -0,0 +1,7 @@
+package com.github.uziskull.restdbservice.model.exception;
+
+public class DeviceVersionMismatchException extends DeviceException {
+    public DeviceVersionMismatchException() {
+        super("The device was modified since the requested version.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.uziskull.restdbservice.model.exception;
+
+public class InvalidCursorException extends DeviceException {
+    public InvalidCursorException() {
+        super("The provided continuation cursor is invalid.");
+    }
+}
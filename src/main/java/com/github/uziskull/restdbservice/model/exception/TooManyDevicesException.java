@@ -0,0 +1,7 @@
+package com.github.uziskull.restdbservice.model.exception;
+
+public class TooManyDevicesException extends DeviceException {
+    public TooManyDevicesException() {
+        super("The request exceeds the maximum number of devices allowed.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.uziskull.restdbservice.repository;
+
+public interface DeviceKey {
+    String getName();
+
+    String getBrand();
+}
@@ -1,14 +1,72 @@
 package com.github.uziskull.restdbservice.repository;
 
 import com.github.uziskull.restdbservice.model.dao.DeviceDAO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface DeviceRepository extends JpaRepository<DeviceDAO, UUID> {
     Page<DeviceDAO> findByBrand(String brand, Pageable pageable);
+
+    Slice<DeviceDAO> findSliceBy(Pageable pageable);
+
+    Slice<DeviceDAO> findSliceByBrand(String brand, Pageable pageable);
+
+    Slice<DeviceDAO> findSliceByBrandNormalized(String brandNormalized, Pageable pageable);
+
+    Slice<DeviceDAO> findSliceByBrandNormalizedStartingWith(String brandNormalizedPrefix, Pageable pageable);
+
+    long countByBrand(String brand);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<DeviceDAO> streamAllBy();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<DeviceDAO> streamByBrand(String brand);
+
+    List<DeviceKey> findByNameInAndBrandIn(Collection<String> names, Collection<String> brands);
+
+    Window<DeviceDAO> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<DeviceDAO> findByBrand(String brand, ScrollPosition position, Sort sort, Limit limit);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update device d set d.name = coalesce(cast(:name as String), d.name), " +
+            "d.brand = coalesce(cast(:brand as String), d.brand), " +
+            "d.brandNormalized = coalesce(cast(:brandNormalized as String), d.brandNormalized), " +
+            "d.version = d.version + 1 " +
+            "where d.id = :id and (:version is null or d.version = :version)")
+    int updateDevice(@Param("id") UUID id, @Param("name") String name, @Param("brand") String brand,
+                     @Param("brandNormalized") String brandNormalized, @Param("version") Long version);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from device d where d.id = :id and (:version is null or d.version = :version)")
+    int deleteDevice(@Param("id") UUID id, @Param("version") Long version);
 }
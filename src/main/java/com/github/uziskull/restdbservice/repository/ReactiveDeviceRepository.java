@@ -0,0 +1,37 @@
+package com.github.uziskull.restdbservice.repository;
+
+import com.github.uziskull.restdbservice.model.dao.ReactiveDeviceDAO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@Repository
+public interface ReactiveDeviceRepository extends R2dbcRepository<ReactiveDeviceDAO, UUID> {
+    Flux<ReactiveDeviceDAO> findAllBy(Pageable pageable);
+
+    Flux<ReactiveDeviceDAO> findByBrand(String brand, Pageable pageable);
+
+    Flux<ReactiveDeviceDAO> findByBrandNormalized(String brandNormalized, Pageable pageable);
+
+    Flux<ReactiveDeviceDAO> findByBrandNormalizedStartingWith(String brandNormalizedPrefix, Pageable pageable);
+
+    Flux<ReactiveDeviceDAO> findByBrand(String brand);
+
+    @Modifying
+    @Query("update device set name = coalesce(:name, name), brand = coalesce(:brand, brand), " +
+            "brand_normalized = coalesce(:brandNormalized, brand_normalized), version = version + 1 " +
+            "where id = :id and (:version is null or version = :version)")
+    Mono<Integer> updateDevice(@Param("id") UUID id, @Param("name") String name, @Param("brand") String brand,
+                               @Param("brandNormalized") String brandNormalized, @Param("version") Long version);
+
+    @Modifying
+    @Query("delete from device where id = :id and (:version is null or version = :version)")
+    Mono<Integer> deleteDevice(@Param("id") UUID id, @Param("version") Long version);
+}
@@ -0,0 +1,57 @@
+package com.github.uziskull.restdbservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+@Component
+public class DeviceCountCache {
+    private static final String GLOBAL_KEY = "";
+
+    private final boolean enabled;
+    private final Cache<String, Long> counts;
+
+    public DeviceCountCache(DeviceProperties deviceProperties) {
+        DeviceProperties.CountCache countCacheProperties = deviceProperties.getCountCache();
+        this.enabled = countCacheProperties.isEnabled();
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(enabled ? countCacheProperties.getMaximumSize() : 0)
+                .expireAfterWrite(countCacheProperties.getTtl())
+                .build();
+    }
+
+    public long countAll(LongSupplier counter) {
+        return count(GLOBAL_KEY, counter);
+    }
+
+    public long countByBrand(String brand, LongSupplier counter) {
+        return count(brandKey(brand), counter);
+    }
+
+    public void evictBrand(String brand) {
+        if (enabled) {
+            counts.invalidate(GLOBAL_KEY);
+            counts.invalidate(brandKey(brand));
+        }
+    }
+
+    public void evictAll() {
+        if (enabled) {
+            counts.invalidateAll();
+        }
+    }
+
+    private long count(String key, LongSupplier counter) {
+        if (!enabled) {
+            return counter.getAsLong();
+        }
+        return counts.get(key, cacheKey -> counter.getAsLong());
+    }
+
+    private static String brandKey(String brand) {
+        return "brand:" + brand;
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.uziskull.restdbservice.service;
+
+import com.github.uziskull.restdbservice.model.exception.InvalidCursorException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+final class DeviceCursor {
+    static final String TIMESTAMP_KEY = "creationTimestamp";
+    static final String ID_KEY = "id";
+    static final Sort SORT = Sort.by(TIMESTAMP_KEY, ID_KEY);
+
+    private static final String SEPARATOR = "|";
+
+    private DeviceCursor() {
+    }
+
+    static String encode(ScrollPosition position) {
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        String raw = keys.get(TIMESTAMP_KEY) + SEPARATOR + keys.get(ID_KEY);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(TIMESTAMP_KEY, Instant.parse(raw.substring(0, separatorIndex)));
+            keys.put(ID_KEY, UUID.fromString(raw.substring(separatorIndex + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
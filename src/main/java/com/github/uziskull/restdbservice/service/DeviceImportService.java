@@ -0,0 +1,93 @@
+package com.github.uziskull.restdbservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import com.github.uziskull.restdbservice.model.dto.BulkDeviceResult;
+import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
+import com.github.uziskull.restdbservice.model.dto.ErrorResponse;
+import com.github.uziskull.restdbservice.model.dto.ImportLineError;
+import com.github.uziskull.restdbservice.model.dto.ImportSummary;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Service
+@Profile("!reactive")
+@AllArgsConstructor
+public class DeviceImportService {
+
+    private DeviceService deviceService;
+    private DeviceProperties deviceProperties;
+    private ObjectMapper objectMapper;
+
+    public ImportSummary importDevices(@NonNull InputStream inputStream,
+                                       @NonNull Consumer<ImportLineError> errorConsumer) throws IOException {
+        ObjectReader deviceReader = objectMapper.readerFor(DeviceRequest.class);
+        int chunkSize = deviceProperties.getBulk().getChunkSize();
+        ImportSummary importSummary = new ImportSummary();
+        List<DeviceRequest> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    chunk.add(deviceReader.readValue(line));
+                    chunkLines.add(lineNumber);
+                } catch (JsonProcessingException e) {
+                    importSummary.count(BulkDeviceResult.Status.INVALID);
+                    errorConsumer.accept(ImportLineError.builder()
+                            .line(lineNumber)
+                            .status(BulkDeviceResult.Status.INVALID)
+                            .error(ErrorResponse.builder()
+                                    .message(e.getClass().getSimpleName())
+                                    .description("The line was unable to be parsed.")
+                                    .build())
+                            .build());
+                }
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, chunkLines, importSummary, errorConsumer);
+                }
+            }
+        }
+        importChunk(chunk, chunkLines, importSummary, errorConsumer);
+        return importSummary;
+    }
+
+    private void importChunk(List<DeviceRequest> chunk, List<Long> chunkLines, ImportSummary importSummary,
+                             Consumer<ImportLineError> errorConsumer) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<BulkDeviceResult> results = deviceService.addDevices(chunk);
+        for (int i = 0; i < results.size(); i++) {
+            BulkDeviceResult result = results.get(i);
+            importSummary.count(result.getStatus());
+            if (result.getError() != null) {
+                errorConsumer.accept(ImportLineError.builder()
+                        .line(chunkLines.get(i))
+                        .status(result.getStatus())
+                        .error(result.getError())
+                        .build());
+            }
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.uziskull.restdbservice.service;
+
+import com.github.uziskull.restdbservice.cache.BrandPageKey;
+import com.github.uziskull.restdbservice.cache.BrandPageSnapshot;
+import com.github.uziskull.restdbservice.cache.DeviceSnapshot;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import com.github.uziskull.restdbservice.datasource.ReadRouting;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical reads share a single database query: the first caller for a key loads it, and callers
+ * arriving while it is in flight wait for its result instead of issuing their own. Only in-flight loads are shared,
+ * nothing is kept once they complete, and evicting a key makes later callers start a new load rather than join one
+ * that may have read data older than the write.
+ * <p>
+ * In-flight loads are registered in a {@link ConcurrentHashMap}, which only locks the bin of the key being added or
+ * removed, and the load itself runs outside of any lock.
+ */
+@Component
+public class DeviceReadCoalescer implements MeterBinder {
+    private static final String METRIC_NAME = "devices.reads.coalesced";
+
+    private final boolean enabled;
+    private final Flights<UUID, Optional<DeviceSnapshot>> deviceFlights = new Flights<>();
+    private final Flights<BrandPageKey, BrandPageSnapshot> brandPageFlights = new Flights<>();
+    private final Flights<Pageable, Page<DeviceSnapshot>> pageFlights = new Flights<>();
+
+    public DeviceReadCoalescer(DeviceProperties deviceProperties) {
+        this.enabled = deviceProperties.getCoalescing().isEnabled();
+    }
+
+    public Optional<DeviceSnapshot> getDevice(@NonNull UUID id, @NonNull Supplier<Optional<DeviceSnapshot>> loader) {
+        return load(deviceFlights, id, loader);
+    }
+
+    public BrandPageSnapshot getBrandPage(@NonNull BrandPageKey key, @NonNull Supplier<BrandPageSnapshot> loader) {
+        return load(brandPageFlights, key, loader);
+    }
+
+    public Page<DeviceSnapshot> getPage(@NonNull Pageable pageable, @NonNull Supplier<Page<DeviceSnapshot>> loader) {
+        return pageable.isUnpaged() ? loader.get() : load(pageFlights, pageable, loader);
+    }
+
+    public void evictDevice(@NonNull UUID id) {
+        deviceFlights.inFlight().remove(id);
+    }
+
+    public void evictPages() {
+        brandPageFlights.inFlight().clear();
+        pageFlights.inFlight().clear();
+    }
+
+    private <K, V> V load(Flights<K, V> flights, K key, Supplier<V> loader) {
+        // Reads inside a transaction may depend on its own uncommitted writes, and reads pinned to the primary must
+        // not join one running on a replica
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()
+                || ReadRouting.isPinnedToPrimary()) {
+            return loader.get();
+        }
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> leader = flights.inFlight().putIfAbsent(key, flight);
+        if (leader != null) {
+            flights.joined().increment();
+            return await(leader);
+        }
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.inFlight().remove(key, flight);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        deviceFlights.bindTo(registry, "device");
+        brandPageFlights.bindTo(registry, "brand-page");
+        pageFlights.bindTo(registry, "page");
+    }
+
+    private record Flights<K, V>(ConcurrentMap<K, CompletableFuture<V>> inFlight, LongAdder joined) {
+
+        Flights() {
+            this(new ConcurrentHashMap<>(), new LongAdder());
+        }
+
+        void bindTo(MeterRegistry registry, String read) {
+            FunctionCounter.builder(METRIC_NAME, joined, LongAdder::sum)
+                    .tag("read", read)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.uziskull.restdbservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import com.github.uziskull.restdbservice.datasource.ReadRouting;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Decides which device reads may run on a read replica. Reads fill the device caches for every client, so a device
+ * updated or deleted on this node, and listings after any write, are read from the primary for
+ * {@code devices.replicas.stickiness}, long enough for the replicas to catch up with the write.
+ */
+@Component
+public class DeviceReadRouter {
+    private final boolean enabled;
+    private final long stickinessNanos;
+    private final Cache<UUID, Boolean> writtenDevices;
+    private volatile long lastWriteNanos;
+
+    public DeviceReadRouter(DeviceProperties deviceProperties) {
+        DeviceProperties.Replicas replicas = deviceProperties.getReplicas();
+        this.enabled = !replicas.getDatasources().isEmpty();
+        this.stickinessNanos = replicas.getStickiness().toNanos();
+        this.writtenDevices = Caffeine.newBuilder()
+                .expireAfterWrite(replicas.getStickiness())
+                .build();
+        this.lastWriteNanos = System.nanoTime() - stickinessNanos;
+    }
+
+    /**
+     * A device missing on a replica may just not have reached it yet, so it is looked up again on the primary.
+     */
+    public <T> Optional<T> readDevice(@NonNull UUID id, @NonNull Supplier<Optional<T>> read) {
+        if (!enabled || ReadRouting.isPinnedToPrimary() || writtenDevices.getIfPresent(id) != null) {
+            return read.get();
+        }
+        return ReadRouting.onReplica(read).or(read);
+    }
+
+    public <T> T readListing(@NonNull Supplier<T> read) {
+        if (!enabled || System.nanoTime() - lastWriteNanos < stickinessNanos) {
+            return read.get();
+        }
+        return ReadRouting.onReplica(read);
+    }
+
+    public void deviceWritten(@NonNull UUID id) {
+        if (enabled) {
+            writtenDevices.put(id, Boolean.TRUE);
+            devicesWritten();
+        }
+    }
+
+    public void devicesWritten() {
+        if (enabled) {
+            lastWriteNanos = System.nanoTime();
+        }
+    }
+}
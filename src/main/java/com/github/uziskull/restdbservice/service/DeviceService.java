@@ -1,85 +1,454 @@
 package com.github.uziskull.restdbservice.service;
 
+import com.github.uziskull.restdbservice.cache.BrandPageKey;
+import com.github.uziskull.restdbservice.cache.BrandPageSnapshot;
+import com.github.uziskull.restdbservice.cache.DeviceCache;
+import com.github.uziskull.restdbservice.cache.DeviceSnapshot;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
 import com.github.uziskull.restdbservice.model.dao.DeviceDAO;
+import com.github.uziskull.restdbservice.model.dto.BrandMatch;
+import com.github.uziskull.restdbservice.model.dto.BulkDeviceResult;
+import com.github.uziskull.restdbservice.model.dto.CursorPage;
+import com.github.uziskull.restdbservice.model.dto.DeviceLookupResult;
 import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
 import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.model.exception.DeviceException;
 import com.github.uziskull.restdbservice.model.exception.DeviceNotFoundException;
+import com.github.uziskull.restdbservice.model.exception.DeviceShardChangeException;
+import com.github.uziskull.restdbservice.model.exception.DeviceVersionMismatchException;
 import com.github.uziskull.restdbservice.model.exception.DuplicateDeviceException;
 import com.github.uziskull.restdbservice.model.exception.MissingDeviceFieldsException;
+import com.github.uziskull.restdbservice.model.exception.TooManyDevicesException;
+import com.github.uziskull.restdbservice.repository.DeviceKey;
 import com.github.uziskull.restdbservice.repository.DeviceRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Profile("!reactive")
 @AllArgsConstructor
+@Timed(DeviceService.METRIC_NAME)
 public class DeviceService {
+    public static final String METRIC_NAME = "devices.service";
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 2000;
 
     private DeviceRepository deviceRepository;
+    private DeviceCountCache deviceCountCache;
+    private DeviceCache deviceCache;
+    private DeviceReadCoalescer deviceReadCoalescer;
+    private DeviceReadRouter deviceReadRouter;
+    private DeviceShards deviceShards;
+    private DeviceProperties deviceProperties;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
 
     public DeviceResponse addDevice(@NonNull DeviceRequest deviceRequest) {
         if (deviceRequest.getName() == null || deviceRequest.getBrand() == null) {
             throw new MissingDeviceFieldsException();
         }
-        DeviceDAO deviceDAO = new DeviceDAO();
-        deviceDAO.setName(deviceRequest.getName());
-        deviceDAO.setBrand(deviceRequest.getBrand());
+        DeviceDAO deviceDAO = toDAO(deviceRequest);
         try {
-            return DeviceResponse.fromDAO(deviceRepository.save(deviceDAO));
+            int shard = deviceShards.shardOf(deviceDAO.getName(), deviceDAO.getBrand());
+            DeviceSnapshot deviceSnapshot = DeviceSnapshot.fromDAO(deviceShards.onShard(shard, () ->
+                    deviceRepository.save(deviceDAO)));
+            deviceCountCache.evictBrand(deviceSnapshot.brand());
+            deviceReadCoalescer.evictPages();
+            deviceReadRouter.devicesWritten();
+            deviceCache.evictBrand(deviceSnapshot.brand());
+            deviceCache.put(deviceSnapshot);
+            return deviceSnapshot.toResponse();
         } catch (DataIntegrityViolationException e) {
             throw new DuplicateDeviceException();
         }
     }
 
+    public List<BulkDeviceResult> addDevices(@NonNull List<DeviceRequest> deviceRequests) {
+        return addDevices(deviceRequests, null);
+    }
+
+    /**
+     * @param ids identifiers already handed out for the devices, in the same order, or null to generate new ones
+     */
+    public List<BulkDeviceResult> addDevices(@NonNull List<DeviceRequest> deviceRequests, List<UUID> ids) {
+        if (deviceRequests.size() > deviceProperties.getBulk().getMaxSize()) {
+            throw new TooManyDevicesException();
+        }
+        if (deviceShards.isSharded()) {
+            return addShardedDevices(deviceRequests, ids);
+        }
+        return addDeviceChunks(deviceRequests, ids);
+    }
+
+    /**
+     * Inserts the devices of each shard separately, since a transaction can't span shards. Devices missing their
+     * name or brand are left to shard 0 to reject.
+     */
+    private List<BulkDeviceResult> addShardedDevices(List<DeviceRequest> deviceRequests, List<UUID> ids) {
+        Map<Integer, List<Integer>> indexesByShard = new TreeMap<>();
+        for (int i = 0; i < deviceRequests.size(); i++) {
+            DeviceRequest deviceRequest = deviceRequests.get(i);
+            int shard = deviceRequest == null || deviceRequest.getName() == null || deviceRequest.getBrand() == null ?
+                    0 : deviceShards.shardOf(deviceRequest.getName(), deviceRequest.getBrand());
+            indexesByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(i);
+        }
+        BulkDeviceResult[] results = new BulkDeviceResult[deviceRequests.size()];
+        indexesByShard.forEach((shard, indexes) -> {
+            List<DeviceRequest> shardRequests = indexes.stream().map(deviceRequests::get).toList();
+            List<UUID> shardIds = ids == null ? null : indexes.stream().map(ids::get).toList();
+            List<BulkDeviceResult> shardResults = deviceShards.onShard(shard, () ->
+                    addDeviceChunks(shardRequests, shardIds));
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = shardResults.get(i);
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    private List<BulkDeviceResult> addDeviceChunks(List<DeviceRequest> deviceRequests, List<UUID> ids) {
+        int chunkSize = deviceProperties.getBulk().getChunkSize();
+        List<BulkDeviceResult> results = new ArrayList<>(deviceRequests.size());
+        for (int from = 0; from < deviceRequests.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, deviceRequests.size());
+            results.addAll(addDeviceChunk(deviceRequests.subList(from, to),
+                    ids == null ? null : ids.subList(from, to)));
+        }
+        return results;
+    }
+
+    private List<BulkDeviceResult> addDeviceChunk(List<DeviceRequest> deviceRequests, List<UUID> ids) {
+        BulkDeviceResult[] results = new BulkDeviceResult[deviceRequests.size()];
+        Map<List<String>, Integer> pendingIndexes = new LinkedHashMap<>();
+        for (int i = 0; i < deviceRequests.size(); i++) {
+            DeviceRequest deviceRequest = deviceRequests.get(i);
+            if (deviceRequest == null || deviceRequest.getName() == null || deviceRequest.getBrand() == null) {
+                results[i] = BulkDeviceResult.failed(BulkDeviceResult.Status.INVALID,
+                        new MissingDeviceFieldsException());
+            } else if (pendingIndexes.putIfAbsent(List.of(deviceRequest.getName(), deviceRequest.getBrand()), i)
+                    != null) {
+                results[i] = BulkDeviceResult.failed(BulkDeviceResult.Status.DUPLICATE,
+                        new DuplicateDeviceException());
+            }
+        }
+        if (!pendingIndexes.isEmpty()) {
+            Set<String> names = pendingIndexes.keySet().stream().map(key -> key.get(0)).collect(Collectors.toSet());
+            Set<String> brands = pendingIndexes.keySet().stream().map(key -> key.get(1)).collect(Collectors.toSet());
+            for (DeviceKey existingKey : deviceRepository.findByNameInAndBrandIn(names, brands)) {
+                Integer index = pendingIndexes.remove(List.of(existingKey.getName(), existingKey.getBrand()));
+                if (index != null) {
+                    results[index] = BulkDeviceResult.failed(BulkDeviceResult.Status.DUPLICATE,
+                            new DuplicateDeviceException());
+                }
+            }
+            insertDevices(deviceRequests, ids, pendingIndexes.values(), results);
+            deviceCountCache.evictAll();
+            deviceReadCoalescer.evictPages();
+            deviceReadRouter.devicesWritten();
+            pendingIndexes.keySet().stream().map(key -> key.get(1)).distinct().forEach(deviceCache::evictBrand);
+            if (ids != null) {
+                // Handed out identifiers may have been looked up, and cached as missing, before being inserted
+                pendingIndexes.values().forEach(i -> {
+                    deviceReadCoalescer.evictDevice(ids.get(i));
+                    deviceCache.evict(ids.get(i));
+                });
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void insertDevices(List<DeviceRequest> deviceRequests, List<UUID> ids, Collection<Integer> indexes,
+                               BulkDeviceResult[] results) {
+        List<DeviceDAO> deviceDAOs = indexes.stream()
+                .map(i -> toDAO(deviceRequests.get(i), ids == null ? null : ids.get(i)))
+                .toList();
+        try {
+            List<DeviceDAO> savedDevices = transactionTemplate.execute(status ->
+                    deviceRepository.saveAllAndFlush(deviceDAOs));
+            Iterator<DeviceDAO> savedIterator = savedDevices.iterator();
+            indexes.forEach(i -> results[i] = BulkDeviceResult.created(DeviceResponse.fromDAO(savedIterator.next())));
+        } catch (DataIntegrityViolationException e) {
+            for (int i : indexes) {
+                try {
+                    DeviceDAO savedDevice = transactionTemplate.execute(status ->
+                            deviceRepository.saveAndFlush(toDAO(deviceRequests.get(i),
+                                    ids == null ? null : ids.get(i))));
+                    results[i] = BulkDeviceResult.created(DeviceResponse.fromDAO(savedDevice));
+                } catch (DataIntegrityViolationException duplicate) {
+                    results[i] = BulkDeviceResult.failed(BulkDeviceResult.Status.DUPLICATE,
+                            new DuplicateDeviceException());
+                }
+            }
+        }
+    }
+
+    private static DeviceDAO toDAO(DeviceRequest deviceRequest) {
+        return toDAO(deviceRequest, null);
+    }
+
+    private static DeviceDAO toDAO(DeviceRequest deviceRequest, UUID id) {
+        DeviceDAO deviceDAO = new DeviceDAO();
+        deviceDAO.setAssignedId(id);
+        deviceDAO.setName(deviceRequest.getName());
+        deviceDAO.setBrand(deviceRequest.getBrand());
+        return deviceDAO;
+    }
+
     public DeviceResponse getDeviceByIdentifier(@NonNull UUID id) {
-        return deviceRepository.findById(id)
-                .map(DeviceResponse::fromDAO)
+        return deviceCache.get(id, key -> deviceReadCoalescer.getDevice(key, () -> loadDevice(key)))
+                .map(DeviceSnapshot::toResponse)
                 .orElseThrow(DeviceNotFoundException::new);
     }
 
+    private Optional<DeviceSnapshot> loadDevice(UUID id) {
+        return deviceReadRouter.readDevice(id, () -> deviceShards.onDeviceShard(id, () ->
+                deviceRepository.findById(id).map(DeviceSnapshot::fromDAO)));
+    }
+
+    /**
+     * Resolves cached devices first and loads the rest with one {@code IN} query per bulk chunk. Loaded devices are
+     * not put into the cache, so that a lookup racing with a delete can't bring the deleted device back.
+     */
+    public DeviceLookupResult lookupDevices(@NonNull List<UUID> ids) {
+        if (ids.size() > deviceProperties.getBulk().getMaxSize()) {
+            throw new TooManyDevicesException();
+        }
+        List<UUID> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<UUID, DeviceResponse> found = new HashMap<>();
+        List<UUID> uncachedIds = new ArrayList<>();
+        for (UUID id : distinctIds) {
+            deviceCache.getIfPresent(id).ifPresentOrElse(
+                    deviceSnapshot -> found.put(id, deviceSnapshot.toResponse()),
+                    () -> uncachedIds.add(id));
+        }
+        int chunkSize = deviceProperties.getBulk().getChunkSize();
+        deviceShards.groupByShard(uncachedIds).forEach((shard, shardIds) -> deviceShards.onShard(shard, () -> {
+            for (int from = 0; from < shardIds.size(); from += chunkSize) {
+                deviceRepository.findAllById(shardIds.subList(from, Math.min(from + chunkSize, shardIds.size())))
+                        .forEach(deviceDAO -> found.put(deviceDAO.getId(), DeviceResponse.fromDAO(deviceDAO)));
+            }
+            return null;
+        }));
+        return DeviceLookupResult.of(distinctIds, found);
+    }
+
     public Page<DeviceResponse> listAllDevices(Pageable pageable) {
-        return deviceRepository.findAll(pageable)
+        return deviceReadCoalescer.getPage(pageable, () -> deviceReadRouter.readListing(() -> loadPage(pageable)))
+                .map(DeviceSnapshot::toResponse);
+    }
+
+    private Page<DeviceSnapshot> loadPage(Pageable pageable) {
+        return PageableExecutionUtils.getPage(
+                        deviceShards.gatherSlice(pageable, deviceRepository::findSliceBy).getContent(), pageable,
+                        () -> deviceCountCache.countAll(() -> deviceShards.sum(deviceRepository::count)))
+                .map(DeviceSnapshot::fromDAO);
+    }
+
+    public Slice<DeviceResponse> sliceAllDevices(Pageable pageable) {
+        return deviceShards.gatherSlice(pageable, deviceRepository::findSliceBy)
                 .map(DeviceResponse::fromDAO);
     }
 
+    public CursorPage<DeviceResponse> scrollAllDevices(String cursor, int size) {
+        KeysetScrollPosition position = DeviceCursor.decode(cursor);
+        Limit limit = toLimit(size);
+        return toCursorPage(deviceShards.gatherWindow(DeviceCursor.SORT, limit, () ->
+                deviceRepository.findBy(position, DeviceCursor.SORT, limit)));
+    }
+
+    /**
+     * Streams the devices of one shard after the other, each within its own read-only transaction.
+     */
+    public void exportDevices(String brand, @NonNull Consumer<DeviceResponse> deviceConsumer) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(
+                Objects.requireNonNull(transactionTemplate.getTransactionManager()));
+        readOnlyTransaction.setReadOnly(true);
+        deviceShards.forEachShard(() -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<DeviceDAO> devices = brand == null ?
+                    deviceRepository.streamAllBy() : deviceRepository.streamByBrand(brand)) {
+                devices.forEach(deviceDAO -> {
+                    deviceConsumer.accept(DeviceResponse.fromDAO(deviceDAO));
+                    entityManager.detach(deviceDAO);
+                });
+            }
+        }));
+    }
+
     public DeviceResponse updateDevice(@NonNull UUID deviceId,
                                        @NonNull DeviceRequest deviceRequest) {
-        Optional<DeviceDAO> foundDevice = deviceRepository.findById(deviceId);
-        if (foundDevice.isEmpty()) {
-            throw new DeviceNotFoundException();
-        }
-        DeviceDAO deviceDAO = foundDevice.get();
-        if (deviceRequest.getName() != null) {
-            deviceDAO.setName(deviceRequest.getName());
-        }
-        if (deviceRequest.getBrand() != null) {
-            deviceDAO.setBrand(deviceRequest.getBrand());
-        }
+        return updateDevice(deviceId, deviceRequest, null);
+    }
+
+    public DeviceResponse updateDevice(@NonNull UUID deviceId,
+                                       @NonNull DeviceRequest deviceRequest,
+                                       Long expectedVersion) {
+        DeviceSnapshot deviceSnapshot;
         try {
-            return DeviceResponse.fromDAO(deviceRepository.save(deviceDAO));
+            deviceSnapshot = deviceShards.onDeviceShard(deviceId, () -> transactionTemplate.execute(status -> {
+                if (deviceShards.isSharded() && (deviceRequest.getName() != null || deviceRequest.getBrand() != null)) {
+                    return updateKeepingShard(deviceId, deviceRequest, expectedVersion);
+                }
+                return updateInTransaction(deviceId, deviceRequest, expectedVersion,
+                        deviceCache.getIfPresent(deviceId).orElse(null));
+            }));
         } catch (DataIntegrityViolationException e) {
             throw new DuplicateDeviceException();
         }
+        deviceCountCache.evictAll();
+        deviceReadCoalescer.evictDevice(deviceId);
+        deviceReadCoalescer.evictPages();
+        deviceReadRouter.deviceWritten(deviceId);
+        deviceCache.evictAllBrands();
+        deviceCache.put(deviceSnapshot);
+        return deviceSnapshot.toResponse();
+    }
+
+    /**
+     * With a cached snapshot of the device, the update is made conditional on its version: when the row still has
+     * that version, it still holds the snapshot's fields, and the response is built from them without reading the
+     * row back. Otherwise, or without a cached snapshot, the updated row is read back.
+     */
+    private DeviceSnapshot updateInTransaction(UUID deviceId, DeviceRequest deviceRequest, Long expectedVersion,
+                                               DeviceSnapshot cachedSnapshot) {
+        String brandNormalized = DeviceDAO.normalizeBrand(deviceRequest.getBrand());
+        if (cachedSnapshot != null && (expectedVersion == null || expectedVersion.equals(cachedSnapshot.version()))) {
+            if (deviceRepository.updateDevice(deviceId, deviceRequest.getName(), deviceRequest.getBrand(),
+                    brandNormalized, cachedSnapshot.version()) > 0) {
+                return cachedSnapshot.updatedWith(deviceRequest.getName(), deviceRequest.getBrand());
+            }
+            if (expectedVersion != null) {
+                throw notUpdatedException(deviceId, expectedVersion);
+            }
+        }
+        if (deviceRepository.updateDevice(deviceId, deviceRequest.getName(), deviceRequest.getBrand(),
+                brandNormalized, expectedVersion) == 0) {
+            throw notUpdatedException(deviceId, expectedVersion);
+        }
+        return deviceRepository.findById(deviceId)
+                .map(DeviceSnapshot::fromDAO)
+                .orElseThrow(DeviceNotFoundException::new);
     }
 
     public void deleteDevice(@NonNull UUID deviceId) {
-        try {
-            deviceRepository.deleteById(deviceId);
-        } catch (EmptyResultDataAccessException e) {
-            throw new DeviceNotFoundException();
+        deleteDevice(deviceId, null);
+    }
+
+    public void deleteDevice(@NonNull UUID deviceId, Long expectedVersion) {
+        if (deviceShards.onDeviceShard(deviceId, () -> deviceRepository.deleteDevice(deviceId, expectedVersion)) == 0) {
+            throw notUpdatedException(deviceId, expectedVersion);
         }
+        deviceCountCache.evictAll();
+        deviceReadCoalescer.evictDevice(deviceId);
+        deviceReadCoalescer.evictPages();
+        deviceReadRouter.deviceWritten(deviceId);
+        deviceCache.evict(deviceId);
+        deviceCache.evictAllBrands();
+    }
+
+    /**
+     * A new name or brand must keep the device on its shard, which is checked against the row itself. The row is read
+     * once, for both the check and the response, and the update is conditional on the version that was read; if the
+     * row changed in between, it is read and checked again.
+     */
+    private DeviceSnapshot updateKeepingShard(UUID deviceId, DeviceRequest deviceRequest, Long expectedVersion) {
+        String brandNormalized = DeviceDAO.normalizeBrand(deviceRequest.getBrand());
+        while (true) {
+            DeviceSnapshot current = deviceRepository.findById(deviceId)
+                    .map(DeviceSnapshot::fromDAO)
+                    .orElseThrow(DeviceNotFoundException::new);
+            String name = Objects.requireNonNullElse(deviceRequest.getName(), current.name());
+            String brand = Objects.requireNonNullElse(deviceRequest.getBrand(), current.brand());
+            if (deviceShards.shardOf(name, brand) != deviceShards.shardOf(deviceId)) {
+                throw new DeviceShardChangeException();
+            }
+            if (expectedVersion != null && !expectedVersion.equals(current.version())) {
+                throw new DeviceVersionMismatchException();
+            }
+            if (deviceRepository.updateDevice(deviceId, deviceRequest.getName(), deviceRequest.getBrand(),
+                    brandNormalized, current.version()) > 0) {
+                return current.updatedWith(deviceRequest.getName(), deviceRequest.getBrand());
+            }
+        }
+    }
+
+    private DeviceException notUpdatedException(UUID deviceId, Long expectedVersion) {
+        return expectedVersion != null
+                && deviceShards.onDeviceShard(deviceId, () -> deviceRepository.existsById(deviceId)) ?
+                new DeviceVersionMismatchException() : new DeviceNotFoundException();
     }
 
     public Page<DeviceResponse> searchDeviceByBrand(@NonNull String brand, Pageable pageable) {
-        return deviceRepository.findByBrand(brand, pageable)
+        if (pageable.isUnpaged()) {
+            return deviceReadRouter.readListing(() -> loadBrandPage(brand, pageable)).map(DeviceResponse::fromDAO);
+        }
+        BrandPageSnapshot brandPage = deviceCache.getBrandPage(BrandPageKey.of(brand, pageable), key ->
+                deviceReadCoalescer.getBrandPage(key, () -> {
+                    Page<DeviceDAO> devices = deviceReadRouter.readListing(() -> loadBrandPage(brand, pageable));
+                    return new BrandPageSnapshot(devices.map(DeviceSnapshot::fromDAO).getContent(),
+                            devices.getTotalElements());
+                }));
+        return new PageImpl<>(brandPage.content().stream().map(DeviceSnapshot::toResponse).toList(), pageable,
+                brandPage.totalElements());
+    }
+
+    private Page<DeviceDAO> loadBrandPage(String brand, Pageable pageable) {
+        return PageableExecutionUtils.getPage(deviceShards.gatherSlice(pageable, shardPageable ->
+                        deviceRepository.findSliceByBrand(brand, shardPageable)).getContent(), pageable,
+                () -> deviceCountCache.countByBrand(brand, () ->
+                        deviceShards.sum(() -> deviceRepository.countByBrand(brand))));
+    }
+
+    public Slice<DeviceResponse> sliceDevicesByBrand(@NonNull String brand, Pageable pageable) {
+        return deviceShards.gatherSlice(pageable, shardPageable ->
+                        deviceRepository.findSliceByBrand(brand, shardPageable))
                 .map(DeviceResponse::fromDAO);
     }
+
+    public Slice<DeviceResponse> sliceDevicesByBrand(@NonNull String brand, @NonNull BrandMatch brandMatch,
+                                                     Pageable pageable) {
+        Slice<DeviceDAO> devices = deviceShards.gatherSlice(pageable, shardPageable -> switch (brandMatch) {
+            case EXACT -> deviceRepository.findSliceByBrand(brand, shardPageable);
+            case IGNORE_CASE -> deviceRepository.findSliceByBrandNormalized(DeviceDAO.normalizeBrand(brand),
+                    shardPageable);
+            case PREFIX -> deviceRepository.findSliceByBrandNormalizedStartingWith(DeviceDAO.normalizeBrand(brand),
+                    shardPageable);
+        });
+        return devices.map(DeviceResponse::fromDAO);
+    }
+
+    public CursorPage<DeviceResponse> scrollDevicesByBrand(@NonNull String brand, String cursor, int size) {
+        KeysetScrollPosition position = DeviceCursor.decode(cursor);
+        Limit limit = toLimit(size);
+        return toCursorPage(deviceShards.gatherWindow(DeviceCursor.SORT, limit, () ->
+                deviceRepository.findByBrand(brand, position, DeviceCursor.SORT, limit)));
+    }
+
+    private static Limit toLimit(int size) {
+        return Limit.of(Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE)));
+    }
+
+    private static CursorPage<DeviceResponse> toCursorPage(Window<DeviceDAO> window) {
+        return CursorPage.<DeviceResponse>builder()
+                .content(window.map(DeviceResponse::fromDAO).getContent())
+                .nextCursor(window.hasNext() ? DeviceCursor.encode(window.positionAt(window.size() - 1)) : null)
+                .build();
+    }
 }
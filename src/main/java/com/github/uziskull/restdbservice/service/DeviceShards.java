@@ -0,0 +1,225 @@
+package com.github.uziskull.restdbservice.service;
+
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import com.github.uziskull.restdbservice.datasource.ShardRouting;
+import com.github.uziskull.restdbservice.model.dao.DeviceDAO;
+import com.github.uziskull.restdbservice.model.dao.id.DeviceShardKey;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs device queries on the shards owning the devices, see {@link DeviceShardKey}. Queries by identifier go to a
+ * single shard, while listings are sent to every shard in parallel and their results merged in the requested order;
+ * a shard can't know which of its rows fall on a given page, so each returns every row up to the end of that page.
+ * Without {@code devices.sharding.datasources}, everything runs as is on the single database.
+ */
+@Component
+public class DeviceShards {
+    private static final Map<String, Function<DeviceDAO, Object>> SORT_PROPERTIES = Map.of(
+            "id", DeviceDAO::getId,
+            "name", DeviceDAO::getName,
+            "brand", DeviceDAO::getBrand,
+            "brandNormalized", DeviceDAO::getBrandNormalized,
+            "creationTimestamp", DeviceDAO::getCreationTimestamp,
+            "version", DeviceDAO::getVersion);
+    // Databases compare UUIDs as unsigned numbers, unlike UUID#compareTo
+    private static final Comparator<UUID> UUID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private final int shardCount;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("shard-query-", 0).factory());
+    private final TaskExecutorAdapter shardQueries = new TaskExecutorAdapter(executor);
+
+    public DeviceShards(DeviceProperties deviceProperties, ObjectProvider<TaskDecorator> taskDecorator) {
+        this.shardCount = deviceProperties.getSharding().getShardCount();
+        taskDecorator.ifUnique(shardQueries::setTaskDecorator);
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.close();
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardOf(@NonNull UUID id) {
+        return isSharded() ? DeviceShardKey.shardOf(id, shardCount) : 0;
+    }
+
+    public int shardOf(@NonNull String name, @NonNull String brand) {
+        return isSharded() ? DeviceShardKey.shardOf(name, brand, shardCount) : 0;
+    }
+
+    public <T> T onShard(int shard, @NonNull Supplier<T> action) {
+        return isSharded() ? ShardRouting.onShard(shard, action) : action.get();
+    }
+
+    public <T> T onDeviceShard(@NonNull UUID id, @NonNull Supplier<T> action) {
+        return onShard(shardOf(id), action);
+    }
+
+    public void forEachShard(@NonNull Runnable action) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            onShard(shard, () -> {
+                action.run();
+                return null;
+            });
+        }
+    }
+
+    public Map<Integer, List<UUID>> groupByShard(@NonNull Collection<UUID> ids) {
+        if (!isSharded()) {
+            return Map.of(0, List.copyOf(ids));
+        }
+        Map<Integer, List<UUID>> idsByShard = new TreeMap<>();
+        ids.forEach(id -> idsByShard.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(id));
+        return idsByShard;
+    }
+
+    public long sum(@NonNull LongSupplier count) {
+        return isSharded() ? scatter(count::getAsLong).stream().mapToLong(Long::longValue).sum() : count.getAsLong();
+    }
+
+    public Slice<DeviceDAO> gatherSlice(@NonNull Pageable pageable,
+                                        @NonNull Function<Pageable, Slice<DeviceDAO>> query) {
+        if (!isSharded()) {
+            return query.apply(pageable);
+        }
+        Sort sort = withIdOrder(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            List<DeviceDAO> devices = merge(scatter(() -> query.apply(Pageable.unpaged(sort)).getContent()), sort);
+            return new SliceImpl<>(devices, pageable, false);
+        }
+        int end = Math.toIntExact(pageable.getOffset() + pageable.getPageSize());
+        Pageable shardPageable = PageRequest.of(0, end + 1, sort);
+        List<DeviceDAO> devices = merge(scatter(() -> query.apply(shardPageable).getContent()), sort);
+        List<DeviceDAO> content = devices.subList(Math.min(end - pageable.getPageSize(), devices.size()),
+                Math.min(end, devices.size()));
+        return new SliceImpl<>(new ArrayList<>(content), pageable, devices.size() > end);
+    }
+
+    /**
+     * @param query a keyset query run on every shard, all of them resuming from the same position
+     */
+    public Window<DeviceDAO> gatherWindow(@NonNull Sort sort, @NonNull Limit limit,
+                                          @NonNull Supplier<Window<DeviceDAO>> query) {
+        if (!isSharded()) {
+            return query.get();
+        }
+        List<Window<DeviceDAO>> windows = scatter(query);
+        List<DeviceDAO> devices = merge(windows.stream().map(Window::getContent).toList(), sort);
+        boolean hasNext = devices.size() > limit.max() || windows.stream().anyMatch(Window::hasNext);
+        List<DeviceDAO> content = new ArrayList<>(devices.subList(0, Math.min(limit.max(), devices.size())));
+        return Window.from(content, index -> positionOf(content.get(index), sort), hasNext);
+    }
+
+    private <T> List<T> scatter(Supplier<T> query) {
+        List<Future<T>> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            results.add(shardQueries.submit(() -> ShardRouting.onShard(target, query)));
+        }
+        List<T> gathered = new ArrayList<>(shardCount);
+        try {
+            for (Future<T> result : results) {
+                gathered.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying the shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            results.forEach(result -> result.cancel(true));
+        }
+        return gathered;
+    }
+
+    // Rows equal on every requested property could otherwise come back in a different order on every shard query,
+    // and be skipped or repeated from one page to the next
+    private static Sort withIdOrder(Sort sort) {
+        return sort.getOrderFor("id") == null ? sort.and(Sort.by("id")) : sort;
+    }
+
+    // Every shard returns its rows already sorted, which the sort merges as runs
+    private static List<DeviceDAO> merge(List<List<DeviceDAO>> shardDevices, Sort sort) {
+        List<DeviceDAO> devices = new ArrayList<>();
+        shardDevices.forEach(devices::addAll);
+        devices.sort(comparatorOf(sort));
+        return devices;
+    }
+
+    private static Comparator<DeviceDAO> comparatorOf(Sort sort) {
+        Comparator<DeviceDAO> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<DeviceDAO> orderComparator = Comparator.comparing(propertyOf(order.getProperty()),
+                    Comparator.nullsFirst(valueOrder(order.isIgnoreCase())));
+            if (order.isDescending()) {
+                orderComparator = orderComparator.reversed();
+            }
+            comparator = comparator == null ? orderComparator : comparator.thenComparing(orderComparator);
+        }
+        return comparator;
+    }
+
+    private static Function<DeviceDAO, Object> propertyOf(String property) {
+        Function<DeviceDAO, Object> getter = SORT_PROPERTIES.get(property);
+        if (getter == null) {
+            throw new IllegalArgumentException("Can't sort devices by " + property);
+        }
+        return getter;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Object> valueOrder(boolean ignoreCase) {
+        return (left, right) -> {
+            if (left instanceof UUID leftId) {
+                return UUID_ORDER.compare(leftId, (UUID) right);
+            }
+            if (ignoreCase && left instanceof String leftString) {
+                return leftString.compareToIgnoreCase((String) right);
+            }
+            return ((Comparable) left).compareTo(right);
+        };
+    }
+
+    private static ScrollPosition positionOf(DeviceDAO deviceDAO, Sort sort) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            keys.put(order.getProperty(), propertyOf(order.getProperty()).apply(deviceDAO));
+        }
+        return ScrollPosition.forward(keys);
+    }
+}
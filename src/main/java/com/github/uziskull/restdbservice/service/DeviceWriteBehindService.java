@@ -0,0 +1,192 @@
+package com.github.uziskull.restdbservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import com.github.uziskull.restdbservice.model.dao.id.DeviceShardKey;
+import com.github.uziskull.restdbservice.model.dto.BulkDeviceResult;
+import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
+import com.github.uziskull.restdbservice.model.dto.DeviceWriteStatus;
+import com.github.uziskull.restdbservice.model.exception.DeviceQueueFullException;
+import com.github.uziskull.restdbservice.model.exception.MissingDeviceFieldsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts devices to be created later, handing out their identifiers right away. A single writer thread takes them
+ * from a bounded queue and inserts them through {@link DeviceService#addDevices(List, List)}, up to
+ * {@code flush-size} at a time, as soon as that many are queued or {@code flush-interval} after the first one.
+ * The outcome of each write is kept for {@code status-ttl}.
+ */
+@Service
+@Profile("!reactive")
+@Slf4j
+public class DeviceWriteBehindService implements SmartLifecycle, MeterBinder {
+    // Stopped after the web server (at DEFAULT_PHASE - 2048), so that nothing is queued while draining
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    private static final PendingDevice WAKE_UP = new PendingDevice(null, null);
+
+    private final DeviceService deviceService;
+    private final DeviceProperties deviceProperties;
+    private final DeviceProperties.WriteBehind writeBehindProperties;
+    private final BlockingQueue<PendingDevice> queue;
+    private final Cache<UUID, DeviceWriteStatus> statuses;
+    private volatile boolean running;
+    private Thread writer;
+
+    public DeviceWriteBehindService(DeviceService deviceService, DeviceProperties deviceProperties) {
+        this.deviceService = deviceService;
+        this.deviceProperties = deviceProperties;
+        this.writeBehindProperties = deviceProperties.getWriteBehind();
+        this.queue = new ArrayBlockingQueue<>(writeBehindProperties.getQueueCapacity());
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(writeBehindProperties.getStatusMaximumSize())
+                .expireAfterWrite(writeBehindProperties.getStatusTtl())
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return writeBehindProperties.isEnabled();
+    }
+
+    public DeviceWriteStatus enqueue(@NonNull DeviceRequest deviceRequest) {
+        if (deviceRequest.getName() == null || deviceRequest.getBrand() == null) {
+            throw new MissingDeviceFieldsException();
+        }
+        UUID id = DeviceShardKey.nextId(deviceProperties.getIdStrategy(), deviceRequest.getName(),
+                deviceRequest.getBrand(), deviceProperties.getSharding().getShardCount());
+        DeviceWriteStatus status = DeviceWriteStatus.pending(id);
+        statuses.put(id, status);
+        if (!running || !queue.offer(new PendingDevice(id, deviceRequest))) {
+            statuses.invalidate(id);
+            throw new DeviceQueueFullException();
+        }
+        return status;
+    }
+
+    /**
+     * Devices whose status is no longer kept are reported as created if they exist.
+     */
+    public DeviceWriteStatus getWriteStatus(@NonNull UUID id) {
+        DeviceWriteStatus status = statuses.getIfPresent(id);
+        if (status != null) {
+            return status;
+        }
+        return DeviceWriteStatus.written(id, BulkDeviceResult.created(deviceService.getDeviceByIdentifier(id)));
+    }
+
+    private void writeQueued() {
+        int flushSize = writeBehindProperties.getFlushSize();
+        long flushIntervalNanos = writeBehindProperties.getFlushInterval().toNanos();
+        List<PendingDevice> batch = new ArrayList<>(flushSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < flushSize) {
+                    if (queue.drainTo(batch, flushSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingDevice next = remaining > 0 && running ?
+                            queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Device writer interrupted, {} devices left unwritten", queue.size() + batch.size());
+                return;
+            }
+            batch.remove(WAKE_UP);
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<PendingDevice> batch) {
+        List<BulkDeviceResult> results;
+        try {
+            results = deviceService.addDevices(batch.stream().map(PendingDevice::deviceRequest).toList(),
+                    batch.stream().map(PendingDevice::id).toList());
+        } catch (RuntimeException e) {
+            log.error("Error writing {} queued devices:", batch.size(), e);
+            batch.forEach(pendingDevice -> statuses.put(pendingDevice.id(),
+                    DeviceWriteStatus.failed(pendingDevice.id(), e)));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            UUID id = batch.get(i).id();
+            statuses.put(id, DeviceWriteStatus.written(id, results.get(i)));
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("device-writer").start(this::writeQueued);
+    }
+
+    /**
+     * Stops accepting devices and waits up to {@code drain-timeout} for the queued ones to be written.
+     */
+    @Override
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        // A full queue means the writer is not waiting for one
+        queue.offer(WAKE_UP);
+        try {
+            writer.join(writeBehindProperties.getDrainTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Device writer did not drain in time, {} devices left unwritten", queue.size());
+            writer.interrupt();
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("devices.write-behind.queued", queue, BlockingQueue::size)
+                .description("Devices accepted and not yet written")
+                .register(registry);
+    }
+
+    private record PendingDevice(UUID id, DeviceRequest deviceRequest) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.uziskull.restdbservice.service;
+
+import com.github.uziskull.restdbservice.cache.DeviceCache;
+import com.github.uziskull.restdbservice.cache.DeviceSnapshot;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import com.github.uziskull.restdbservice.model.dao.DeviceDAO;
+import com.github.uziskull.restdbservice.model.dao.ReactiveDeviceDAO;
+import com.github.uziskull.restdbservice.model.dto.BrandMatch;
+import com.github.uziskull.restdbservice.model.dto.BulkDeviceResult;
+import com.github.uziskull.restdbservice.model.dto.DeviceLookupResult;
+import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.model.exception.DeviceNotFoundException;
+import com.github.uziskull.restdbservice.model.exception.DeviceVersionMismatchException;
+import com.github.uziskull.restdbservice.model.exception.DuplicateDeviceException;
+import com.github.uziskull.restdbservice.model.exception.MissingDeviceFieldsException;
+import com.github.uziskull.restdbservice.model.exception.TooManyDevicesException;
+import com.github.uziskull.restdbservice.repository.ReactiveDeviceRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+@Service
+@Profile("reactive")
+@AllArgsConstructor
+public class ReactiveDeviceService {
+
+    private ReactiveDeviceRepository deviceRepository;
+    private DeviceCache deviceCache;
+    private DeviceProperties deviceProperties;
+    private TransactionalOperator transactionalOperator;
+
+    public Mono<DeviceResponse> addDevice(@NonNull DeviceRequest deviceRequest) {
+        if (deviceRequest.getName() == null || deviceRequest.getBrand() == null) {
+            return Mono.error(new MissingDeviceFieldsException());
+        }
+        return deviceRepository.save(toDAO(deviceRequest))
+                .onErrorMap(DataIntegrityViolationException.class, e -> new DuplicateDeviceException())
+                .map(DeviceSnapshot::fromDAO)
+                .doOnNext(deviceSnapshot -> {
+                    deviceCache.evictBrand(deviceSnapshot.brand());
+                    deviceCache.put(deviceSnapshot);
+                })
+                .map(DeviceSnapshot::toResponse);
+    }
+
+    public Flux<BulkDeviceResult> addDevices(@NonNull List<DeviceRequest> deviceRequests) {
+        if (deviceRequests.size() > deviceProperties.getBulk().getMaxSize()) {
+            return Flux.error(new TooManyDevicesException());
+        }
+        return Flux.fromIterable(deviceRequests)
+                .concatMap(deviceRequest -> (deviceRequest == null ?
+                        Mono.<DeviceResponse>error(new MissingDeviceFieldsException()) : addDevice(deviceRequest))
+                        .map(BulkDeviceResult::created)
+                        .onErrorResume(MissingDeviceFieldsException.class, e -> Mono.just(
+                                BulkDeviceResult.failed(BulkDeviceResult.Status.INVALID, e)))
+                        .onErrorResume(DuplicateDeviceException.class, e -> Mono.just(
+                                BulkDeviceResult.failed(BulkDeviceResult.Status.DUPLICATE, e))));
+    }
+
+    private ReactiveDeviceDAO toDAO(DeviceRequest deviceRequest) {
+        ReactiveDeviceDAO deviceDAO = new ReactiveDeviceDAO();
+        deviceDAO.setId(deviceProperties.getIdStrategy().nextId());
+        deviceDAO.setName(deviceRequest.getName());
+        deviceDAO.setBrand(deviceRequest.getBrand());
+        deviceDAO.setCreationTimestamp(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        return deviceDAO;
+    }
+
+    public Mono<DeviceResponse> getDeviceByIdentifier(@NonNull UUID id) {
+        return Mono.justOrEmpty(deviceCache.getIfPresent(id))
+                .switchIfEmpty(Mono.defer(() -> deviceRepository.findById(id)
+                        .map(DeviceSnapshot::fromDAO)
+                        .doOnNext(deviceCache::fill)))
+                .map(DeviceSnapshot::toResponse)
+                .switchIfEmpty(Mono.error(DeviceNotFoundException::new));
+    }
+
+    public Mono<DeviceLookupResult> lookupDevices(@NonNull List<UUID> ids) {
+        if (ids.size() > deviceProperties.getBulk().getMaxSize()) {
+            return Mono.error(new TooManyDevicesException());
+        }
+        List<UUID> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<UUID, DeviceResponse> cached = new HashMap<>();
+        List<UUID> uncachedIds = new ArrayList<>();
+        for (UUID id : distinctIds) {
+            deviceCache.getIfPresent(id).ifPresentOrElse(
+                    deviceSnapshot -> cached.put(id, deviceSnapshot.toResponse()),
+                    () -> uncachedIds.add(id));
+        }
+        return Flux.fromIterable(uncachedIds)
+                .buffer(deviceProperties.getBulk().getChunkSize())
+                .concatMap(deviceRepository::findAllById)
+                .collectMap(ReactiveDeviceDAO::getId, DeviceResponse::fromDAO, () -> cached)
+                .map(found -> DeviceLookupResult.of(distinctIds, found));
+    }
+
+    public Flux<DeviceResponse> listAllDevices(Pageable pageable) {
+        return deviceRepository.findAllBy(pageable)
+                .map(DeviceResponse::fromDAO);
+    }
+
+    public Flux<DeviceResponse> listDevicesByBrand(@NonNull String brand, @NonNull BrandMatch brandMatch,
+                                                   Pageable pageable) {
+        Flux<ReactiveDeviceDAO> devices = switch (brandMatch) {
+            case EXACT -> deviceRepository.findByBrand(brand, pageable);
+            case IGNORE_CASE -> deviceRepository.findByBrandNormalized(DeviceDAO.normalizeBrand(brand), pageable);
+            case PREFIX -> deviceRepository.findByBrandNormalizedStartingWith(DeviceDAO.normalizeBrand(brand),
+                    pageable);
+        };
+        return devices.map(DeviceResponse::fromDAO);
+    }
+
+    public Flux<DeviceResponse> exportDevices(String brand) {
+        return (brand == null ? deviceRepository.findAll() : deviceRepository.findByBrand(brand))
+                .map(DeviceResponse::fromDAO);
+    }
+
+    public Mono<DeviceResponse> updateDevice(@NonNull UUID deviceId,
+                                             @NonNull DeviceRequest deviceRequest,
+                                             Long expectedVersion) {
+        return deviceRepository.updateDevice(deviceId, deviceRequest.getName(), deviceRequest.getBrand(),
+                        DeviceDAO.normalizeBrand(deviceRequest.getBrand()), expectedVersion)
+                .flatMap(updated -> updated == 0 ? notUpdatedException(deviceId, expectedVersion) :
+                        deviceRepository.findById(deviceId))
+                .as(transactionalOperator::transactional)
+                .onErrorMap(DataIntegrityViolationException.class, e -> new DuplicateDeviceException())
+                .map(DeviceSnapshot::fromDAO)
+                .doOnNext(deviceSnapshot -> {
+                    deviceCache.evictAllBrands();
+                    deviceCache.put(deviceSnapshot);
+                })
+                .map(DeviceSnapshot::toResponse)
+                .switchIfEmpty(Mono.error(DeviceNotFoundException::new));
+    }
+
+    public Mono<Void> deleteDevice(@NonNull UUID deviceId, Long expectedVersion) {
+        return deviceRepository.deleteDevice(deviceId, expectedVersion)
+                .flatMap(deleted -> deleted == 0 ? notUpdatedException(deviceId, expectedVersion) :
+                        Mono.fromRunnable(() -> {
+                            deviceCache.evict(deviceId);
+                            deviceCache.evictAllBrands();
+                        }))
+                .then();
+    }
+
+    private <T> Mono<T> notUpdatedException(UUID deviceId, Long expectedVersion) {
+        Mono<Boolean> exists = expectedVersion == null ? Mono.just(false) : deviceRepository.existsById(deviceId);
+        return exists.flatMap(found -> Mono.error(found ?
+                new DeviceVersionMismatchException() : new DeviceNotFoundException()));
+    }
+}
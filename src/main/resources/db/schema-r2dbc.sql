@@ -0,0 +1,14 @@
+create table if not exists device (
+    id uuid not null,
+    name varchar(255) not null,
+    brand varchar(255) not null,
+    brand_normalized varchar(255) not null,
+    created_at timestamp(6) with time zone,
+    version bigint,
+    primary key (id),
+    constraint uk_device_name_brand unique (name, brand)
+);
+
+create index if not exists idx_device_brand on device (brand, created_at, id);
+
+create index if not exists idx_device_brand_normalized on device (brand_normalized);
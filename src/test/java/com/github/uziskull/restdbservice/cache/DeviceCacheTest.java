@@ -0,0 +1,192 @@
+package com.github.uziskull.restdbservice.cache;
+
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeviceCacheTest {
+
+    private static DeviceCache deviceCache(Duration negativeTtl) {
+        DeviceProperties deviceProperties = new DeviceProperties();
+        deviceProperties.getCache().setNegativeTtl(negativeTtl);
+        return new DeviceCache(deviceProperties, new NoOpSharedDeviceCache(), new LoopbackInvalidationBus());
+    }
+
+    private static DeviceCache deviceCache(SharedDeviceCache sharedCache, CacheInvalidationBus invalidationBus) {
+        return new DeviceCache(new DeviceProperties(), sharedCache, invalidationBus);
+    }
+
+    private static SharedDeviceCache localSharedCache() {
+        return new LocalSharedDeviceCache(1000, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Loaded devices, and their absence, are cached until evicted")
+    void get_cachesPresentAndAbsent() {
+        DeviceCache deviceCache = deviceCache(Duration.ofMinutes(1));
+        DeviceSnapshot deviceSnapshot = new DeviceSnapshot(UUID.randomUUID(), "name", "brand", Instant.now(), 0L);
+        UUID unknownId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(deviceCache.get(deviceSnapshot.id(), id -> {
+                loads.incrementAndGet();
+                return Optional.of(deviceSnapshot);
+            })).contains(deviceSnapshot);
+            assertThat(deviceCache.get(unknownId, id -> {
+                loads.incrementAndGet();
+                return Optional.empty();
+            })).isEmpty();
+        }
+        deviceCache.evict(deviceSnapshot.id());
+        deviceCache.get(deviceSnapshot.id(), id -> {
+            loads.incrementAndGet();
+            return Optional.of(deviceSnapshot);
+        });
+
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Negative entries expire after their own time to live")
+    void get_negativeExpiry() {
+        DeviceCache deviceCache = deviceCache(Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+
+        deviceCache.get(UUID.randomUUID(), id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        UUID unknownId = UUID.randomUUID();
+        deviceCache.get(unknownId, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        deviceCache.get(unknownId, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("A device loaded by one node is served to another node from the shared cache")
+    void get_sharedAcrossNodes() {
+        SharedDeviceCache sharedCache = localSharedCache();
+        CacheInvalidationBus invalidationBus = new LoopbackInvalidationBus();
+        DeviceCache firstNode = deviceCache(sharedCache, invalidationBus);
+        DeviceCache secondNode = deviceCache(sharedCache, invalidationBus);
+        DeviceSnapshot deviceSnapshot = new DeviceSnapshot(UUID.randomUUID(), "name", "brand", Instant.now(), 0L);
+        AtomicInteger loads = new AtomicInteger();
+
+        firstNode.get(deviceSnapshot.id(), id -> {
+            loads.incrementAndGet();
+            return Optional.of(deviceSnapshot);
+        });
+        assertThat(secondNode.get(deviceSnapshot.id(), id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        })).contains(deviceSnapshot);
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Evicting a device on one node invalidates it on every other node")
+    void evict_invalidatesOtherNodes() {
+        SharedDeviceCache sharedCache = localSharedCache();
+        CacheInvalidationBus invalidationBus = new LoopbackInvalidationBus();
+        DeviceCache firstNode = deviceCache(sharedCache, invalidationBus);
+        DeviceCache secondNode = deviceCache(sharedCache, invalidationBus);
+        DeviceSnapshot deviceSnapshot = new DeviceSnapshot(UUID.randomUUID(), "name", "brand", Instant.now(), 0L);
+        DeviceSnapshot updatedSnapshot = new DeviceSnapshot(deviceSnapshot.id(), "newName", "brand", Instant.now(), 1L);
+
+        secondNode.get(deviceSnapshot.id(), id -> Optional.of(deviceSnapshot));
+        firstNode.evict(deviceSnapshot.id());
+
+        assertThat(secondNode.get(deviceSnapshot.id(), id -> Optional.of(updatedSnapshot)))
+                .contains(updatedSnapshot);
+    }
+
+    @Test
+    @DisplayName("Filling a device on one node shares it without invalidating it on other nodes")
+    void fill_keepsOtherNodes() {
+        SharedDeviceCache sharedCache = localSharedCache();
+        List<CacheInvalidation> invalidations = new ArrayList<>();
+        CacheInvalidationBus invalidationBus = new LoopbackInvalidationBus();
+        invalidationBus.subscribe(invalidations::add);
+        DeviceCache firstNode = deviceCache(sharedCache, invalidationBus);
+        DeviceCache secondNode = deviceCache(sharedCache, invalidationBus);
+        DeviceSnapshot deviceSnapshot = new DeviceSnapshot(UUID.randomUUID(), "name", "brand", Instant.now(), 0L);
+        DeviceSnapshot otherSnapshot = new DeviceSnapshot(UUID.randomUUID(), "otherName", "brand", Instant.now(), 0L);
+
+        secondNode.get(deviceSnapshot.id(), id -> Optional.of(deviceSnapshot));
+        firstNode.fill(deviceSnapshot);
+        firstNode.fill(otherSnapshot);
+
+        assertThat(invalidations).isEmpty();
+        assertThat(secondNode.getIfPresent(deviceSnapshot.id())).contains(deviceSnapshot);
+        assertThat(secondNode.getIfPresent(otherSnapshot.id())).contains(otherSnapshot);
+    }
+
+    @Test
+    @DisplayName("Brand pages are shared across nodes and invalidated per brand")
+    void getBrandPage_sharedAndInvalidated() {
+        SharedDeviceCache sharedCache = localSharedCache();
+        CacheInvalidationBus invalidationBus = new LoopbackInvalidationBus();
+        DeviceCache firstNode = deviceCache(sharedCache, invalidationBus);
+        DeviceCache secondNode = deviceCache(sharedCache, invalidationBus);
+        BrandPageKey brandKey = new BrandPageKey("brand", 0, 10, "UNSORTED");
+        BrandPageKey otherBrandKey = new BrandPageKey("otherBrand", 0, 10, "UNSORTED");
+        AtomicInteger loads = new AtomicInteger();
+
+        for (DeviceCache node : List.of(firstNode, secondNode)) {
+            for (BrandPageKey key : List.of(brandKey, otherBrandKey)) {
+                node.getBrandPage(key, pageKey -> {
+                    loads.incrementAndGet();
+                    return new BrandPageSnapshot(List.of(), 0);
+                });
+            }
+        }
+        assertThat(loads.get()).isEqualTo(2);
+
+        firstNode.evictBrand("brand");
+        for (BrandPageKey key : List.of(brandKey, otherBrandKey)) {
+            secondNode.getBrandPage(key, pageKey -> {
+                loads.incrementAndGet();
+                return new BrandPageSnapshot(List.of(), 0);
+            });
+        }
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Cache statistics are exposed as metrics")
+    void bindTo_metrics() {
+        DeviceCache deviceCache = deviceCache(Duration.ofMinutes(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        deviceCache.bindTo(registry);
+        UUID id = UUID.randomUUID();
+
+        deviceCache.get(id, key -> Optional.empty());
+        deviceCache.get(id, key -> Optional.empty());
+
+        assertThat(registry.get("cache.gets").tag("cache", "devices").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "devices").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.find("cache.evictions").tag("cache", "devices").functionCounter()).isNotNull();
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.uziskull.restdbservice.cache;
+
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SerializedResponseCacheTest {
+    private static final String NODE = "node";
+
+    private final CacheInvalidationBus invalidationBus = new LoopbackInvalidationBus();
+    private final SerializedResponseCache cache = new SerializedResponseCache(new DeviceProperties(), invalidationBus);
+
+    private static SerializedResponse response() {
+        return new SerializedResponse("application/json", new HttpHeaders(), "{}".getBytes());
+    }
+
+    @Test
+    @DisplayName("A response loaded before its device is invalidated is not cached")
+    void put_invalidatedDevice_notCached() {
+        UUID deviceId = new UUID(0, 1);
+        SerializedResponseKey key = SerializedResponseKey.device(deviceId, "/api/v1/devices/1", "application/json");
+
+        long generation = cache.generation(key);
+        invalidationBus.publish(CacheInvalidation.device(NODE, deviceId));
+        cache.put(key, response(), generation);
+
+        assertThat(cache.get(key)).isNull();
+    }
+
+    @Test
+    @DisplayName("Invalidating other devices and brands does not keep a response from being cached")
+    void put_otherInvalidations_cached() {
+        SerializedResponseKey deviceKey =
+                SerializedResponseKey.device(new UUID(0, 1), "/api/v1/devices/1", "application/json");
+        SerializedResponseKey brandKey = SerializedResponseKey.brand("acme", "/api/v1/devices?brand=acme", "*/*");
+
+        long deviceGeneration = cache.generation(deviceKey);
+        long brandGeneration = cache.generation(brandKey);
+        invalidationBus.publish(CacheInvalidation.device(NODE, new UUID(0, 2)));
+        invalidationBus.publish(CacheInvalidation.brand(NODE, "globex"));
+        cache.put(deviceKey, response(), deviceGeneration);
+        cache.put(brandKey, response(), brandGeneration);
+
+        assertThat(cache.get(deviceKey)).isNotNull();
+        assertThat(cache.get(brandKey)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("A brand listing loaded before all brands are invalidated is not cached")
+    void put_allBrandsInvalidated_notCached() {
+        SerializedResponseKey key = SerializedResponseKey.brand("acme", "/api/v1/devices?brand=acme", "*/*");
+
+        long generation = cache.generation(key);
+        invalidationBus.publish(CacheInvalidation.allBrands(NODE));
+        cache.put(key, response(), generation);
+
+        assertThat(cache.get(key)).isNull();
+    }
+}
@@ -1,21 +1,54 @@
 package com.github.uziskull.restdbservice.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.github.uziskull.restdbservice.controller.format.DeviceProtobufHttpMessageConverter;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import com.github.uziskull.restdbservice.model.dto.BrandMatch;
+import com.github.uziskull.restdbservice.model.dto.BulkDeviceResult;
+import com.github.uziskull.restdbservice.model.dto.CursorPage;
+import com.github.uziskull.restdbservice.model.dto.DeviceLookupResult;
 import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
 import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.model.dto.DeviceWriteStatus;
+import com.github.uziskull.restdbservice.model.dto.ImportLineError;
+import com.github.uziskull.restdbservice.model.dto.ImportSummary;
 import com.github.uziskull.restdbservice.model.exception.DeviceNotFoundException;
+import com.github.uziskull.restdbservice.model.exception.DeviceQueueFullException;
+import com.github.uziskull.restdbservice.model.exception.DeviceVersionMismatchException;
+import com.github.uziskull.restdbservice.model.exception.DuplicateDeviceException;
+import com.github.uziskull.restdbservice.model.exception.InvalidCursorException;
 import com.github.uziskull.restdbservice.model.exception.MissingDeviceFieldsException;
+import com.github.uziskull.restdbservice.model.exception.TooManyDevicesException;
+import com.github.uziskull.restdbservice.model.dto.ErrorResponse;
+import com.github.uziskull.restdbservice.service.DeviceImportService;
 import com.github.uziskull.restdbservice.service.DeviceService;
+import com.github.uziskull.restdbservice.service.DeviceWriteBehindService;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
 
 import java.time.Instant;
 import java.util.List;
@@ -23,12 +56,17 @@ import java.util.UUID;
 import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.endsWith;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(DeviceController.class)
+@Import({SimpleMeterRegistry.class, DeviceErrorReporter.class})
+@EnableConfigurationProperties(DeviceProperties.class)
 class DeviceControllerTest {
 
     private static final String DEVICE_CONTROLLER_PATH = "/api/v1/devices";
@@ -37,9 +75,15 @@ class DeviceControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @MockBean
     private DeviceService deviceService;
+    @MockBean
+    private DeviceImportService deviceImportService;
+    @MockBean
+    private DeviceWriteBehindService deviceWriteBehindService;
 
     @Test
     @DisplayName("Create a device successfully")
@@ -98,6 +142,278 @@ class DeviceControllerTest {
         assertThat(result.get("description")).isEqualTo(new MissingDeviceFieldsException().getMessage());
     }
 
+    @Test
+    @DisplayName("Create a device asynchronously and get its write status")
+    void createDevice_async() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(deviceWriteBehindService.isEnabled()).thenReturn(true);
+        when(deviceWriteBehindService.enqueue(argThat(dr -> DEVICE_NAME.equals(dr.getName()))))
+                .thenReturn(DeviceWriteStatus.pending(id));
+        when(deviceWriteBehindService.getWriteStatus(id)).thenReturn(DeviceWriteStatus.builder()
+                .id(id)
+                .status(DeviceWriteStatus.Status.CREATED)
+                .build());
+
+        MockHttpServletResponse response = mockMvc.perform(post(DEVICE_CONTROLLER_PATH)
+                        .header(DeviceController.PREFER, DeviceController.RESPOND_ASYNC)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONObject().put("name", DEVICE_NAME).put("brand", DEVICE_BRAND).toString()))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(DeviceController.PREFERENCE_APPLIED, DeviceController.RESPOND_ASYNC))
+                .andReturn().getResponse();
+
+        assertThat(response.getHeader(HttpHeaders.LOCATION)).endsWith(DEVICE_CONTROLLER_PATH + "/" + id + "/status");
+        JSONObject result = new JSONObject(response.getContentAsString());
+        assertThat(result.get("id")).isEqualTo(id.toString());
+        assertThat(result.get("status")).isEqualTo("PENDING");
+        verify(deviceService, never()).addDevice(any());
+
+        JSONObject status = new JSONObject(mockMvc.perform(get(response.getHeader(HttpHeaders.LOCATION)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertThat(status.get("status")).isEqualTo("CREATED");
+    }
+
+    @Test
+    @DisplayName("Create a device asynchronously while the write queue is full")
+    void createDevice_asyncQueueFull() throws Exception {
+        when(deviceWriteBehindService.isEnabled()).thenReturn(true);
+        when(deviceWriteBehindService.enqueue(any())).thenThrow(new DeviceQueueFullException());
+
+        mockMvc.perform(post(DEVICE_CONTROLLER_PATH)
+                        .header(DeviceController.PREFER, DeviceController.RESPOND_ASYNC)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONObject().put("name", DEVICE_NAME).put("brand", DEVICE_BRAND).toString()))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("Create a device asynchronously among other preferences, in the negotiated representation")
+    void createDevice_asyncNegotiated() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(deviceWriteBehindService.isEnabled()).thenReturn(true);
+        when(deviceWriteBehindService.enqueue(any())).thenReturn(DeviceWriteStatus.pending(id));
+        String device = new JSONObject().put("name", DEVICE_NAME).put("brand", DEVICE_BRAND).toString();
+
+        for (String prefer : List.of("respond-async, wait=5", "handling=lenient, Respond-Async")) {
+            JSONObject result = new JSONObject(mockMvc.perform(post(DEVICE_CONTROLLER_PATH)
+                            .header(DeviceController.PREFER, prefer)
+                            .accept(DeviceController.PLAIN_JSON_VALUE)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(device))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string(DeviceController.PREFERENCE_APPLIED, DeviceController.RESPOND_ASYNC))
+                    .andReturn().getResponse().getContentAsString());
+            assertThat(result.get("id")).isEqualTo(id.toString());
+        }
+        mockMvc.perform(post(DEVICE_CONTROLLER_PATH)
+                        .header(DeviceController.PREFER, "respond-async")
+                        .accept(DeviceProtobufHttpMessageConverter.PROTOBUF_VALUE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(device))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, endsWith("/" + id + "/status")));
+        verify(deviceService, never()).addDevice(any());
+    }
+
+    @Test
+    @DisplayName("Create a device preferring asynchrony with write-behind disabled, in the negotiated representation")
+    void createDevice_asyncDisabled() throws Exception {
+        DeviceResponse deviceResponse = new DeviceResponse();
+        deviceResponse.setId(UUID.randomUUID());
+        deviceResponse.setName(DEVICE_NAME);
+        deviceResponse.setBrand(DEVICE_BRAND);
+        deviceResponse.setVersion(0L);
+        when(deviceWriteBehindService.isEnabled()).thenReturn(false);
+        when(deviceService.addDevice(any())).thenReturn(deviceResponse);
+
+        mockMvc.perform(post(DEVICE_CONTROLLER_PATH)
+                        .header(DeviceController.PREFER, "respond-async")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONObject().put("name", DEVICE_NAME).put("brand", DEVICE_BRAND).toString()))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-cbor\""));
+        verify(deviceWriteBehindService, never()).enqueue(any());
+    }
+
+    @Test
+    @DisplayName("Create devices in bulk")
+    void createDevices_successful() throws Exception {
+        DeviceResponse deviceResponse = new DeviceResponse();
+        deviceResponse.setId(UUID.randomUUID());
+        deviceResponse.setName(DEVICE_NAME);
+        deviceResponse.setBrand(DEVICE_BRAND);
+        when(deviceService.addDevices(argThat(drs -> drs.size() == 2)))
+                .thenReturn(List.of(BulkDeviceResult.created(deviceResponse),
+                        BulkDeviceResult.failed(BulkDeviceResult.Status.DUPLICATE, new DuplicateDeviceException())));
+
+        JSONArray result = new JSONArray(mockMvc.perform(post(DEVICE_CONTROLLER_PATH + "/bulk")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONArray()
+                                .put(new JSONObject().put("name", DEVICE_NAME).put("brand", DEVICE_BRAND))
+                                .put(new JSONObject().put("name", DEVICE_NAME).put("brand", DEVICE_BRAND))
+                                .toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(result.length()).isEqualTo(2);
+        assertThat(result.getJSONObject(0).get("status")).isEqualTo("CREATED");
+        assertThat(result.getJSONObject(0).getJSONObject("device").get("id"))
+                .isEqualTo(deviceResponse.getId().toString());
+        assertThat(result.getJSONObject(0).has("error")).isFalse();
+        assertThat(result.getJSONObject(1).get("status")).isEqualTo("DUPLICATE");
+        assertThat(result.getJSONObject(1).getJSONObject("error").get("description"))
+                .isEqualTo(new DuplicateDeviceException().getMessage());
+    }
+
+    @Test
+    @DisplayName("Create too many devices in bulk")
+    void createDevices_tooMany() throws Exception {
+        when(deviceService.addDevices(anyList()))
+                .thenThrow(new TooManyDevicesException());
+
+        JSONObject result = new JSONObject(mockMvc.perform(post(DEVICE_CONTROLLER_PATH + "/bulk")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(result.get("description")).isEqualTo(new TooManyDevicesException().getMessage());
+    }
+
+    @Test
+    @DisplayName("Look up devices by their identifiers")
+    void lookupDevices() throws Exception {
+        DeviceResponse deviceResponse = new DeviceResponse();
+        deviceResponse.setId(UUID.randomUUID());
+        deviceResponse.setName(DEVICE_NAME);
+        deviceResponse.setBrand(DEVICE_BRAND);
+        UUID missingId = UUID.randomUUID();
+        when(deviceService.lookupDevices(List.of(deviceResponse.getId(), missingId)))
+                .thenReturn(DeviceLookupResult.builder()
+                        .devices(List.of(deviceResponse))
+                        .missing(List.of(missingId))
+                        .build());
+
+        JSONObject result = new JSONObject(mockMvc.perform(post(DEVICE_CONTROLLER_PATH + "/lookup")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONArray().put(deviceResponse.getId()).put(missingId).toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(result.getJSONArray("devices").length()).isEqualTo(1);
+        assertThat(result.getJSONArray("devices").getJSONObject(0).get("id"))
+                .isEqualTo(deviceResponse.getId().toString());
+        assertThat(result.getJSONArray("devices").getJSONObject(0).has("links")).isFalse();
+        assertThat(result.getJSONArray("missing").get(0)).isEqualTo(missingId.toString());
+    }
+
+    @Test
+    @DisplayName("Import devices from an NDJSON stream")
+    void importDevices_summary() throws Exception {
+        ImportSummary importSummary = new ImportSummary();
+        importSummary.setInserted(2);
+        importSummary.setInvalid(1);
+        when(deviceImportService.importDevices(any(InputStream.class), any())).thenReturn(importSummary);
+
+        JSONObject result = new JSONObject(mockMvc.perform(post(DEVICE_CONTROLLER_PATH + "/import")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n{}\n{}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(result.getLong("inserted")).isEqualTo(2);
+        assertThat(result.getLong("duplicate")).isEqualTo(0);
+        assertThat(result.getLong("invalid")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Import devices from an NDJSON stream, streaming back line errors")
+    void importDevices_streamedErrors() throws Exception {
+        ImportSummary importSummary = new ImportSummary();
+        importSummary.setInserted(1);
+        importSummary.setInvalid(1);
+        when(deviceImportService.importDevices(any(InputStream.class), any())).thenAnswer(i -> {
+            Consumer<ImportLineError> errorConsumer = i.getArgument(1);
+            errorConsumer.accept(ImportLineError.builder()
+                    .line(2)
+                    .status(BulkDeviceResult.Status.INVALID)
+                    .error(ErrorResponse.builder().message("error").build())
+                    .build());
+            return importSummary;
+        });
+
+        MvcResult asyncResult = mockMvc.perform(post(DEVICE_CONTROLLER_PATH + "/import")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n{}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] resultLines = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        assertThat(resultLines).hasSize(2);
+        assertThat(new JSONObject(resultLines[0]).getLong("line")).isEqualTo(2);
+        assertThat(new JSONObject(resultLines[1]).getLong("inserted")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Export devices as NDJSON and CSV")
+    void exportDevices() throws Exception {
+        DeviceResponse deviceResponse = new DeviceResponse();
+        deviceResponse.setId(UUID.randomUUID());
+        deviceResponse.setName("name, with \"quotes\"");
+        deviceResponse.setBrand(DEVICE_BRAND);
+        deviceResponse.setCreationTimestamp(Instant.now());
+        DeviceResponse untimedDeviceResponse = new DeviceResponse();
+        untimedDeviceResponse.setId(UUID.randomUUID());
+        untimedDeviceResponse.setName("untimed");
+        untimedDeviceResponse.setBrand(DEVICE_BRAND);
+        doAnswer(i -> {
+            Consumer<DeviceResponse> deviceConsumer = i.getArgument(1);
+            deviceConsumer.accept(deviceResponse);
+            deviceConsumer.accept(untimedDeviceResponse);
+            return null;
+        }).when(deviceService).exportDevices(eq(DEVICE_BRAND), any());
+
+        MvcResult ndjsonResult = mockMvc.perform(get(DEVICE_CONTROLLER_PATH + "/export")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .queryParam("brand", DEVICE_BRAND))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] ndjsonLines = mockMvc.perform(asyncDispatch(ndjsonResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+        MvcResult csvResult = mockMvc.perform(get(DEVICE_CONTROLLER_PATH + "/export")
+                        .queryParam("format", "csv")
+                        .queryParam("brand", DEVICE_BRAND))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String[] csvLines = mockMvc.perform(asyncDispatch(csvResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\r\n");
+
+        assertThat(ndjsonLines).hasSize(2);
+        JSONObject ndjsonDevice = new JSONObject(ndjsonLines[0]);
+        assertThat(ndjsonDevice.get("id")).isEqualTo(deviceResponse.getId().toString());
+        assertThat(ndjsonDevice.get("name")).isEqualTo(deviceResponse.getName());
+        assertThat(ndjsonDevice.has("_links")).isFalse();
+        assertThat(new JSONObject(ndjsonLines[1]).isNull("creationTimestamp")).isTrue();
+        assertThat(ndjsonLines[1]).contains("\"creationTimestamp\":null");
+        assertThat(csvLines).hasSize(3);
+        assertThat(csvLines[0]).isEqualTo("id,name,brand,creationTimestamp");
+        assertThat(csvLines[1]).isEqualTo(String.format("%s,\"name, with \"\"quotes\"\"\",%s,%s",
+                deviceResponse.getId(), DEVICE_BRAND, deviceResponse.getCreationTimestamp()));
+        assertThat(csvLines[2]).isEqualTo(untimedDeviceResponse.getId() + ",untimed," + DEVICE_BRAND + ",");
+    }
+
     @Test
     @DisplayName("Get all devices")
     void getAllDevices() throws Exception {
@@ -150,6 +466,91 @@ class DeviceControllerTest {
         assertThat(resultNone.has("_embedded")).isFalse();
     }
 
+    @Test
+    @DisplayName("Get all devices without a total count")
+    void getAllDevicesWithoutCount() throws Exception {
+        List<DeviceResponse> deviceList = IntStream.range(0, 5)
+                .mapToObj(i -> {
+                    DeviceResponse dr = new DeviceResponse();
+                    dr.setId(UUID.randomUUID());
+                    dr.setName(DEVICE_NAME + i);
+                    dr.setBrand(DEVICE_BRAND);
+                    return dr;
+                })
+                .toList();
+        when(deviceService.sliceAllDevices(any(Pageable.class)))
+                .thenAnswer(i -> new SliceImpl<>(deviceList, i.getArgument(0), true));
+
+        JSONObject result = new JSONObject(mockMvc.perform(get(DEVICE_CONTROLLER_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .queryParam("count", "false")
+                        .queryParam("size", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(result.getJSONObject("_embedded").getJSONArray("deviceResponseList").length())
+                .isEqualTo(deviceList.size());
+        assertThat(result.getJSONObject("_links").has("next")).isTrue();
+        assertThat(result.getJSONObject("page").has("totalElements")).isFalse();
+        verify(deviceService, never()).listAllDevices(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Get all devices using a cursor")
+    void getAllDevicesByCursor() throws Exception {
+        List<DeviceResponse> deviceList = IntStream.range(0, 5)
+                .mapToObj(i -> {
+                    DeviceResponse dr = new DeviceResponse();
+                    dr.setId(UUID.randomUUID());
+                    dr.setName(DEVICE_NAME + i);
+                    dr.setBrand(DEVICE_BRAND);
+                    return dr;
+                })
+                .toList();
+        String nextCursor = "nextCursor";
+        when(deviceService.scrollAllDevices("", 5))
+                .thenReturn(CursorPage.<DeviceResponse>builder().content(deviceList).nextCursor(nextCursor).build());
+        when(deviceService.scrollAllDevices(nextCursor, 5))
+                .thenReturn(CursorPage.<DeviceResponse>builder().content(List.of()).build());
+
+        JSONObject resultFirst = new JSONObject(mockMvc.perform(get(DEVICE_CONTROLLER_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .queryParam("cursor", "")
+                        .queryParam("size", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        JSONObject resultLast = new JSONObject(mockMvc.perform(get(DEVICE_CONTROLLER_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .queryParam("cursor", nextCursor)
+                        .queryParam("size", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(resultFirst.getJSONObject("_embedded").getJSONArray("deviceResponseList").length())
+                .isEqualTo(deviceList.size());
+        assertThat(resultFirst.getJSONObject("_links").getJSONObject("next").get("href")).asString()
+                .contains("cursor=" + nextCursor);
+        assertThat(resultFirst.has("page")).isFalse();
+        assertThat(resultLast.has("_embedded")).isFalse();
+        assertThat(resultLast.getJSONObject("_links").has("next")).isFalse();
+        verify(deviceService, never()).listAllDevices(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Get all devices using an invalid cursor")
+    void getAllDevicesByCursor_invalidCursor() throws Exception {
+        when(deviceService.scrollAllDevices(any(), anyInt()))
+                .thenThrow(new InvalidCursorException());
+
+        JSONObject result = new JSONObject(mockMvc.perform(get(DEVICE_CONTROLLER_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .queryParam("cursor", "invalidCursor"))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(result.get("description")).isEqualTo(new InvalidCursorException().getMessage());
+    }
+
     @Test
     @DisplayName("Get all devices with specific brand")
     void getDevicesByBrand() throws Exception {
@@ -189,6 +590,28 @@ class DeviceControllerTest {
         assertThat(resultNone.has("_embedded")).isFalse();
     }
 
+    @Test
+    @DisplayName("Get all devices matching a brand, ignoring case")
+    void getDevicesByBrandMatch() throws Exception {
+        DeviceResponse deviceResponse = new DeviceResponse();
+        deviceResponse.setId(UUID.randomUUID());
+        deviceResponse.setName(DEVICE_NAME);
+        deviceResponse.setBrand(DEVICE_BRAND);
+        when(deviceService.sliceDevicesByBrand(eq(DEVICE_BRAND.toUpperCase()), eq(BrandMatch.IGNORE_CASE),
+                any(Pageable.class)))
+                .thenAnswer(i -> new SliceImpl<>(List.of(deviceResponse), i.getArgument(2), false));
+
+        JSONObject result = new JSONObject(mockMvc.perform(
+                        get(String.format("%s/brand/%s", DEVICE_CONTROLLER_PATH, DEVICE_BRAND.toUpperCase()))
+                                .accept(MediaType.APPLICATION_JSON)
+                                .queryParam("match", BrandMatch.IGNORE_CASE.name()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(result.getJSONObject("_embedded").getJSONArray("deviceResponseList").length()).isEqualTo(1);
+        verify(deviceService, never()).searchDeviceByBrand(any(String.class), any(Pageable.class));
+    }
+
     @Test
     @DisplayName("Getting a device by its identifier")
     void getDeviceById_successful() throws Exception {
@@ -215,6 +638,205 @@ class DeviceControllerTest {
         assertThat(resultSelfLink.get("href")).asString().contains(requestPath);
     }
 
+    @Test
+    @DisplayName("Getting a device by its identifier as plain JSON")
+    void getDeviceById_plain() throws Exception {
+        DeviceResponse deviceResponse = new DeviceResponse();
+        deviceResponse.setId(UUID.randomUUID());
+        deviceResponse.setName(DEVICE_NAME);
+        deviceResponse.setBrand(DEVICE_BRAND);
+        deviceResponse.setVersion(2L);
+        when(deviceService.getDeviceByIdentifier(deviceResponse.getId()))
+                .thenReturn(deviceResponse);
+
+        String requestPath = String.format("%s/%s", DEVICE_CONTROLLER_PATH, deviceResponse.getId());
+        for (var request : List.of(get(requestPath).accept(DeviceController.PLAIN_JSON_VALUE),
+                get(requestPath).param("format", "plain"))) {
+            JSONObject resultDevice = new JSONObject(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_TYPE, DeviceController.PLAIN_JSON_VALUE))
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"2-plain\""))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                    .andReturn().getResponse().getContentAsString());
+
+            assertThat(resultDevice.get("id")).isEqualTo(deviceResponse.getId().toString());
+            assertThat(resultDevice.has("_links")).isFalse();
+            assertThat(resultDevice.has("version")).isFalse();
+            assertThat(resultDevice.get("self")).isEqualTo(requestPath);
+        }
+    }
+
+    @Test
+    @DisplayName("Getting all devices as plain JSON")
+    void getAllDevices_plain() throws Exception {
+        DeviceResponse deviceResponse = new DeviceResponse();
+        deviceResponse.setId(UUID.randomUUID());
+        deviceResponse.setName(DEVICE_NAME);
+        deviceResponse.setBrand(DEVICE_BRAND);
+        when(deviceService.listAllDevices(any(Pageable.class)))
+                .thenAnswer(i -> new PageImpl<>(List.of(deviceResponse), i.getArgument(0, Pageable.class), 11));
+
+        JSONObject result = new JSONObject(mockMvc.perform(get(DEVICE_CONTROLLER_PATH)
+                        .param("format", "plain")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(result.has("_embedded")).isFalse();
+        assertThat(result.getJSONArray("content").getJSONObject(0).get("self"))
+                .isEqualTo(DEVICE_CONTROLLER_PATH + "/" + deviceResponse.getId());
+        JSONObject page = result.getJSONObject("page");
+        assertThat(page.get("totalElements")).isEqualTo(11);
+        assertThat(page.get("totalPages")).isEqualTo(11);
+        assertThat(page.get("hasNext")).isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("Getting a device by its identifier as CBOR")
+    void getDeviceById_cbor() throws Exception {
+        DeviceResponse deviceResponse = new DeviceResponse();
+        deviceResponse.setId(UUID.randomUUID());
+        deviceResponse.setName(DEVICE_NAME);
+        deviceResponse.setBrand(DEVICE_BRAND);
+        deviceResponse.setCreationTimestamp(Instant.parse("2023-12-01T10:15:30.123Z"));
+        deviceResponse.setVersion(1L);
+        when(deviceService.getDeviceByIdentifier(deviceResponse.getId()))
+                .thenReturn(deviceResponse);
+
+        byte[] result = mockMvc.perform(get(DEVICE_CONTROLLER_PATH + "/" + deviceResponse.getId())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-cbor\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode resultDevice = new CBORMapper().readTree(result);
+        assertThat(resultDevice.get("id").isBinary()).isTrue();
+        assertThat(resultDevice.get("id").binaryValue()).isEqualTo(uuidBytes(deviceResponse.getId()));
+        assertThat(resultDevice.get("creationTimestamp").asLong())
+                .isEqualTo(deviceResponse.getCreationTimestamp().toEpochMilli());
+        assertThat(resultDevice.get("name").asText()).isEqualTo(DEVICE_NAME);
+        assertThat(resultDevice.has("self")).isFalse();
+        assertThat(resultDevice.has("_links")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Create a device and list devices as protobuf")
+    void createAndListDevices_protobuf() throws Exception {
+        DeviceResponse deviceResponse = new DeviceResponse();
+        deviceResponse.setId(UUID.randomUUID());
+        deviceResponse.setName(DEVICE_NAME);
+        deviceResponse.setBrand(DEVICE_BRAND);
+        deviceResponse.setCreationTimestamp(Instant.parse("2023-12-01T10:15:30.123Z"));
+        deviceResponse.setVersion(0L);
+        when(deviceService.addDevice(argThat(dr -> DEVICE_NAME.equals(dr.getName()) && DEVICE_BRAND.equals(dr.getBrand()))))
+                .thenReturn(deviceResponse);
+        when(deviceService.listAllDevices(any(Pageable.class)))
+                .thenAnswer(i -> new PageImpl<>(List.of(deviceResponse), i.getArgument(0, Pageable.class), 3));
+
+        byte[] request = UnknownFieldSet.newBuilder()
+                .addField(1, UnknownFieldSet.Field.newBuilder()
+                        .addLengthDelimited(ByteString.copyFromUtf8(DEVICE_NAME)).build())
+                .addField(2, UnknownFieldSet.Field.newBuilder()
+                        .addLengthDelimited(ByteString.copyFromUtf8(DEVICE_BRAND)).build())
+                .build().toByteArray();
+        UnknownFieldSet created = UnknownFieldSet.parseFrom(mockMvc.perform(post(DEVICE_CONTROLLER_PATH)
+                        .accept(DeviceProtobufHttpMessageConverter.PROTOBUF_VALUE)
+                        .contentType(DeviceProtobufHttpMessageConverter.PROTOBUF_VALUE)
+                        .content(request))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, DEVICE_CONTROLLER_PATH + "/" + deviceResponse.getId()))
+                .andReturn().getResponse().getContentAsByteArray());
+        assertProtobufDevice(created, deviceResponse);
+
+        UnknownFieldSet page = UnknownFieldSet.parseFrom(mockMvc.perform(get(DEVICE_CONTROLLER_PATH)
+                        .param("format", "protobuf")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, DeviceProtobufHttpMessageConverter.PROTOBUF_VALUE))
+                .andReturn().getResponse().getContentAsByteArray());
+        assertThat(page.getField(1).getLengthDelimitedList()).hasSize(1);
+        assertProtobufDevice(UnknownFieldSet.parseFrom(page.getField(1).getLengthDelimitedList().get(0)),
+                deviceResponse);
+        UnknownFieldSet metadata = UnknownFieldSet.parseFrom(page.getField(2).getLengthDelimitedList().get(0));
+        assertThat(metadata.getField(1).getVarintList()).containsExactly(1L);
+        assertThat(metadata.getField(3).getVarintList()).containsExactly(1L);
+        assertThat(metadata.getField(4).getVarintList()).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Getting an unknown device as protobuf")
+    void getDeviceById_protobufNotFound() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(deviceService.getDeviceByIdentifier(id))
+                .thenThrow(new DeviceNotFoundException());
+
+        UnknownFieldSet result = UnknownFieldSet.parseFrom(mockMvc.perform(get(DEVICE_CONTROLLER_PATH + "/" + id)
+                        .accept(DeviceProtobufHttpMessageConverter.PROTOBUF_VALUE))
+                .andExpect(status().isNotFound())
+                .andReturn().getResponse().getContentAsByteArray());
+
+        assertThat(result.getField(1).getLengthDelimitedList().get(0).toStringUtf8())
+                .isEqualTo(DeviceNotFoundException.class.getSimpleName());
+    }
+
+    private static byte[] uuidBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static void assertProtobufDevice(UnknownFieldSet device, DeviceResponse expected) {
+        assertThat(device.getField(1).getLengthDelimitedList().get(0).toByteArray())
+                .isEqualTo(uuidBytes(expected.getId()));
+        assertThat(device.getField(2).getLengthDelimitedList().get(0).toStringUtf8()).isEqualTo(expected.getName());
+        assertThat(device.getField(3).getLengthDelimitedList().get(0).toStringUtf8()).isEqualTo(expected.getBrand());
+        assertThat(device.getField(4).getVarintList())
+                .containsExactly(expected.getCreationTimestamp().toEpochMilli());
+    }
+
+    @Test
+    @DisplayName("Getting an unchanged device with the entity tag of its representation")
+    void getDeviceById_notModified() throws Exception {
+        DeviceResponse deviceResponse = new DeviceResponse();
+        deviceResponse.setId(UUID.randomUUID());
+        deviceResponse.setName(DEVICE_NAME);
+        deviceResponse.setBrand(DEVICE_BRAND);
+        deviceResponse.setVersion(3L);
+        when(deviceService.getDeviceByIdentifier(deviceResponse.getId()))
+                .thenReturn(deviceResponse);
+        String requestPath = String.format("%s/%s", DEVICE_CONTROLLER_PATH, deviceResponse.getId());
+
+        mockMvc.perform(get(requestPath)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        mockMvc.perform(get(requestPath)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-cbor\""));
+        mockMvc.perform(get(requestPath)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3-cbor\""))
+                .andExpect(status().isNotModified());
+        String result = mockMvc.perform(get(requestPath)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get(requestPath)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isOk());
+
+        assertThat(result).isEmpty();
+    }
+
     @Test
     @DisplayName("Getting a device by a non-existent identifier")
     void getDeviceById_wrongId() throws Exception {
@@ -229,6 +851,22 @@ class DeviceControllerTest {
                 .isEqualTo(new DeviceNotFoundException().getMessage());
     }
 
+    @Test
+    @DisplayName("Device errors are counted per exception type")
+    void handleDeviceException_counted() throws Exception {
+        when(deviceService.getDeviceByIdentifier(any(UUID.class)))
+                .thenThrow(new DeviceNotFoundException());
+        double before = meterRegistry.counter(DeviceController.ERROR_METRIC_NAME,
+                "exception", DeviceNotFoundException.class.getSimpleName()).count();
+
+        mockMvc.perform(get(String.format("%s/%s", DEVICE_CONTROLLER_PATH, UUID.randomUUID()))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+
+        assertThat(meterRegistry.counter(DeviceController.ERROR_METRIC_NAME,
+                "exception", DeviceNotFoundException.class.getSimpleName()).count()).isEqualTo(before + 1);
+    }
+
     @Test
     @DisplayName("Getting a device with an invalid identifier")
     void getDeviceById_paramError() throws Exception {
@@ -248,7 +886,7 @@ class DeviceControllerTest {
         deviceResponse.setId(UUID.randomUUID());
         deviceResponse.setName(DEVICE_NAME);
         deviceResponse.setBrand(DEVICE_BRAND);
-        when(deviceService.updateDevice(eq(deviceResponse.getId()), any(DeviceRequest.class)))
+        when(deviceService.updateDevice(eq(deviceResponse.getId()), any(DeviceRequest.class), isNull()))
                 .thenAnswer(i -> {
                     DeviceRequest dr = i.getArgument(1);
                     if (dr.getName() != null) {
@@ -275,10 +913,33 @@ class DeviceControllerTest {
         assertThat(result.get("name")).isEqualTo(newName);
     }
 
+    @Test
+    @DisplayName("Updating a device only if it matches the given entity tag")
+    void updateDevice_ifMatch() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(deviceService.updateDevice(eq(id), any(DeviceRequest.class), eq(4L)))
+                .thenThrow(new DeviceVersionMismatchException());
+
+        for (String ifMatch : List.of("\"4\"", "\"4-pb\"", "W/\"5\"", "\"5-xml\"")) {
+            JSONObject result = new JSONObject(mockMvc.perform(
+                            put(String.format("%s/%s", DEVICE_CONTROLLER_PATH, id))
+                                    .accept(MediaType.APPLICATION_JSON)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .header(HttpHeaders.IF_MATCH, ifMatch)
+                                    .content(new JSONObject()
+                                            .put("name", DEVICE_NAME)
+                                            .toString()))
+                    .andExpect(status().isPreconditionFailed())
+                    .andReturn().getResponse().getContentAsString());
+            assertThat(result.get("description")).isEqualTo(new DeviceVersionMismatchException().getMessage());
+        }
+        verify(deviceService, times(2)).updateDevice(eq(id), any(DeviceRequest.class), eq(4L));
+    }
+
     @Test
     @DisplayName("Updating a device with a non-existent identifier")
     void updateDevice_wrongId() throws Exception {
-        when(deviceService.updateDevice(any(UUID.class), any(DeviceRequest.class)))
+        when(deviceService.updateDevice(any(UUID.class), any(DeviceRequest.class), isNull()))
                 .thenThrow(new DeviceNotFoundException());
         JSONObject resultDevice = new JSONObject(mockMvc.perform(
                         put(String.format("%s/%s", DEVICE_CONTROLLER_PATH, UUID.randomUUID()))
@@ -336,14 +997,26 @@ class DeviceControllerTest {
                 .andExpect(status().isNoContent())
                 .andReturn().getResponse().getContentAsString();
 
-        verify(deviceService, times(1)).deleteDevice(any(UUID.class));
+        verify(deviceService, times(1)).deleteDevice(any(UUID.class), isNull());
         assertThat(result).isNullOrEmpty();
     }
 
+    @Test
+    @DisplayName("Deleting a device only if it matches the given entity tag")
+    void deleteDevice_ifMatch() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        mockMvc.perform(delete(String.format("%s/%s", DEVICE_CONTROLLER_PATH, id))
+                        .header(HttpHeaders.IF_MATCH, "\"7\""))
+                .andExpect(status().isNoContent());
+
+        verify(deviceService, times(1)).deleteDevice(id, 7L);
+    }
+
     @Test
     @DisplayName("Deleting a device with a non-existent identifier")
     void deleteDevice_wrongId() throws Exception {
-        doThrow(new DeviceNotFoundException()).when(deviceService).deleteDevice(any(UUID.class));
+        doThrow(new DeviceNotFoundException()).when(deviceService).deleteDevice(any(UUID.class), isNull());
         JSONObject resultDevice = new JSONObject(mockMvc.perform(
                         delete(String.format("%s/%s", DEVICE_CONTROLLER_PATH, UUID.randomUUID()))
                                 .accept(MediaType.APPLICATION_JSON))
@@ -0,0 +1,85 @@
+package com.github.uziskull.restdbservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import com.github.uziskull.restdbservice.model.dto.ErrorResponse;
+import com.github.uziskull.restdbservice.model.exception.DeviceNotFoundException;
+import com.github.uziskull.restdbservice.model.exception.DuplicateDeviceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+class DeviceErrorReporterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DeviceErrorReporter errorReporter(int maxPerInterval, Duration interval) {
+        DeviceProperties deviceProperties = new DeviceProperties();
+        deviceProperties.getErrorLog().setMaxPerInterval(maxPerInterval);
+        deviceProperties.getErrorLog().setInterval(interval);
+        return new DeviceErrorReporter(new ObjectMapper(), meterRegistry, deviceProperties);
+    }
+
+    private static long occurrences(String output, String text) {
+        return output.lines().filter(line -> line.contains(text)).count();
+    }
+
+    @Test
+    @DisplayName("Device errors are all counted, but only logged up to the limit per type and interval")
+    void report_rateLimited(CapturedOutput output) throws InterruptedException {
+        DeviceErrorReporter errorReporter = errorReporter(2, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 5; i++) {
+            errorReporter.report(new DeviceNotFoundException());
+        }
+        errorReporter.report(new DuplicateDeviceException());
+
+        assertThat(occurrences(output.getOut(), DeviceNotFoundException.class.getSimpleName())).isEqualTo(2);
+        assertThat(occurrences(output.getOut(), DuplicateDeviceException.class.getSimpleName())).isEqualTo(1);
+        assertThat(meterRegistry.counter(DeviceController.ERROR_METRIC_NAME,
+                "exception", DeviceNotFoundException.class.getSimpleName()).count()).isEqualTo(5);
+
+        Thread.sleep(1_100);
+        errorReporter.report(new DeviceNotFoundException());
+
+        assertThat(occurrences(output.getOut(), DeviceNotFoundException.class.getSimpleName())).isEqualTo(3);
+        assertThat(output.getOut()).contains("(3 similar errors not logged)");
+    }
+
+    @Test
+    @DisplayName("Device errors carry no stack trace and are answered with a body serialized once")
+    void toResponseEntity_preSerialized() throws Exception {
+        DeviceErrorReporter errorReporter = errorReporter(10, Duration.ofSeconds(10));
+        DeviceNotFoundException exception = new DeviceNotFoundException();
+
+        ResponseEntity<?> json = errorReporter.toResponseEntity(exception, List.of(MediaType.ALL));
+        ResponseEntity<?> plain = errorReporter.toResponseEntity(new DeviceNotFoundException(),
+                List.of(MediaType.parseMediaType(DeviceController.PLAIN_JSON_VALUE + ";q=0.9")));
+        ResponseEntity<?> cbor = errorReporter.toResponseEntity(exception, List.of(MediaType.APPLICATION_CBOR));
+
+        assertThat(exception.getStackTrace()).isEmpty();
+        assertThat(json.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(json.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(new JSONObject(new String((byte[]) json.getBody())).get("description"))
+                .isEqualTo(exception.getMessage());
+        assertThat(plain.getHeaders().getContentType())
+                .isEqualTo(MediaType.parseMediaType(DeviceController.PLAIN_JSON_VALUE));
+        assertThat(plain.getBody()).isSameAs(json.getBody());
+        assertThat(cbor.getHeaders().getContentType()).isNull();
+        assertThat(cbor.getBody()).isInstanceOf(ErrorResponse.class);
+    }
+}
@@ -0,0 +1,222 @@
+package com.github.uziskull.restdbservice.controller;
+
+import com.github.uziskull.restdbservice.model.exception.DeviceNotFoundException;
+import com.github.uziskull.restdbservice.model.exception.DeviceVersionMismatchException;
+import com.github.uziskull.restdbservice.model.exception.DuplicateDeviceException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.r2dbc.url=r2dbc:h2:mem:///reactive-test;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("reactive")
+class ReactiveDeviceControllerTest {
+
+    private static final String DEVICE_CONTROLLER_PATH = "/api/v1/devices";
+    private static final String DEVICE_NAME = "deviceName";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private JSONObject createDevice(String name, String brand) throws Exception {
+        return new JSONObject(new String(webTestClient.post()
+                .uri(DEVICE_CONTROLLER_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new JSONObject()
+                        .put("name", name)
+                        .put("brand", brand)
+                        .toString())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody().returnResult().getResponseBodyContent()));
+    }
+
+    private static String uniqueBrand() {
+        return "brand-" + UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Create and get a device")
+    void createDevice_successful() throws Exception {
+        String brand = uniqueBrand();
+        JSONObject created = createDevice(DEVICE_NAME, brand);
+
+        String selfHref = created.getJSONObject("_links").getJSONObject("self").getString("href");
+        assertThat(selfHref).endsWith(DEVICE_CONTROLLER_PATH + "/" + created.getString("id"));
+
+        JSONObject result = new JSONObject(new String(webTestClient.get()
+                .uri(DEVICE_CONTROLLER_PATH + "/{id}", created.getString("id"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody().returnResult().getResponseBodyContent()));
+
+        assertThat(result.get("name")).isEqualTo(DEVICE_NAME);
+        assertThat(result.get("brand")).isEqualTo(brand);
+
+        webTestClient.get()
+                .uri(DEVICE_CONTROLLER_PATH + "/{id}", created.getString("id"))
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @DisplayName("Create a duplicated device")
+    void createDevice_duplicated() throws Exception {
+        String brand = uniqueBrand();
+        createDevice(DEVICE_NAME, brand);
+
+        webTestClient.post()
+                .uri(DEVICE_CONTROLLER_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new JSONObject()
+                        .put("name", DEVICE_NAME)
+                        .put("brand", brand)
+                        .toString())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo(DuplicateDeviceException.class.getSimpleName());
+    }
+
+    @Test
+    @DisplayName("Create a device using wrong input body")
+    void createDevice_wrongBody() {
+        webTestClient.post()
+                .uri(DEVICE_CONTROLLER_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("wrong body")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.description").isEqualTo("The request body was unable to be parsed.");
+    }
+
+    @Test
+    @DisplayName("Get a device using an invalid or unknown ID")
+    void getDevice_wrongId() {
+        webTestClient.get()
+                .uri(DEVICE_CONTROLLER_PATH + "/not-a-uuid")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.description")
+                .isEqualTo("The following request path parameter was unable to be parsed: \"id\"");
+
+        webTestClient.get()
+                .uri(DEVICE_CONTROLLER_PATH + "/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo(DeviceNotFoundException.class.getSimpleName());
+    }
+
+    @Test
+    @DisplayName("Update a device with and without a matching version")
+    void updateDevice_ifMatch() throws Exception {
+        String id = createDevice(DEVICE_NAME, uniqueBrand()).getString("id");
+
+        webTestClient.put()
+                .uri(DEVICE_CONTROLLER_PATH + "/{id}", id)
+                .header(HttpHeaders.IF_MATCH, "\"5\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new JSONObject().put("name", "newName").toString())
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo(DeviceVersionMismatchException.class.getSimpleName());
+
+        webTestClient.put()
+                .uri(DEVICE_CONTROLLER_PATH + "/{id}", id)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new JSONObject().put("name", "newName").toString())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("newName");
+    }
+
+    @Test
+    @DisplayName("Stream devices by brand, as a JSON array and as NDJSON")
+    void getDevicesByBrand_streamed() throws Exception {
+        String brand = uniqueBrand();
+        createDevice("device1", brand);
+        createDevice("device2", brand);
+
+        JSONArray result = new JSONArray(new String(webTestClient.get()
+                .uri(DEVICE_CONTROLLER_PATH + "/brand/{brand}?match=IGNORE_CASE&sort=name,desc",
+                        brand.toUpperCase())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody().returnResult().getResponseBodyContent()));
+
+        assertThat(result.length()).isEqualTo(2);
+        assertThat(result.getJSONObject(0).get("name")).isEqualTo("device2");
+
+        String ndjson = new String(webTestClient.get()
+                .uri(DEVICE_CONTROLLER_PATH + "/brand/{brand}?size=1", brand)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody().returnResult().getResponseBodyContent());
+
+        assertThat(ndjson.lines().toList()).hasSize(1);
+        assertThat(new JSONObject(ndjson.lines().findFirst().orElseThrow()).get("brand")).isEqualTo(brand);
+    }
+
+    @Test
+    @DisplayName("Look up devices by their identifiers")
+    void lookupDevices() throws Exception {
+        String brand = uniqueBrand();
+        String firstId = createDevice("device1", brand).getString("id");
+        String secondId = createDevice("device2", brand).getString("id");
+        String missingId = UUID.randomUUID().toString();
+
+        webTestClient.post()
+                .uri(DEVICE_CONTROLLER_PATH + "/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new JSONArray().put(secondId).put(missingId).put(firstId).toString())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.devices[0].id").isEqualTo(secondId)
+                .jsonPath("$.devices[1].id").isEqualTo(firstId)
+                .jsonPath("$.missing[0]").isEqualTo(missingId);
+    }
+
+    @Test
+    @DisplayName("Delete a device")
+    void deleteDevice_successful() throws Exception {
+        String id = createDevice(DEVICE_NAME, uniqueBrand()).getString("id");
+
+        webTestClient.delete()
+                .uri(DEVICE_CONTROLLER_PATH + "/{id}", id)
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete()
+                .uri(DEVICE_CONTROLLER_PATH + "/{id}", id)
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get()
+                .uri(DEVICE_CONTROLLER_PATH + "/{id}", id)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
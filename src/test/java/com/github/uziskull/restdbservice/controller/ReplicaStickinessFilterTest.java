@@ -0,0 +1,111 @@
+package com.github.uziskull.restdbservice.controller;
+
+import jakarta.servlet.http.Cookie;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sticky-primary;DB_CLOSE_DELAY=-1",
+        "devices.replicas.datasources[0].url=" + ReplicaStickinessFilterTest.REPLICA_URL,
+        "devices.replicas.datasources[0].username=admin",
+        "devices.replicas.datasources[0].password=admin",
+        "devices.cache.enabled=false"
+})
+@AutoConfigureMockMvc
+class ReplicaStickinessFilterTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:sticky-replica;DB_CLOSE_DELAY=-1";
+    private static final String DEVICE_CONTROLLER_PATH = "/api/v1/devices";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private DataSource dataSource;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "admin", "admin"));
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        replica.execute("drop all objects");
+        new JdbcTemplate(dataSource).queryForList("script nodata", String.class).forEach(replica::execute);
+    }
+
+    private UUID insertOnReplicaOnly(String name, String brand) {
+        UUID id = UUID.randomUUID();
+        replica.update("insert into device (id, name, brand, brand_normalized, created_at, version) "
+                        + "values (?, ?, ?, ?, ?, 0)",
+                id, name, brand, brand.toLowerCase(), Timestamp.from(Instant.now()));
+        return id;
+    }
+
+    @Test
+    @DisplayName("Reading devices from the replica, and from the primary for clients that just wrote")
+    void getDevice_routed() throws Exception {
+        UUID id = insertOnReplicaOnly("deviceName", "brand-" + UUID.randomUUID());
+
+        mockMvc.perform(get(DEVICE_CONTROLLER_PATH + "/" + id))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(DEVICE_CONTROLLER_PATH + "/" + id)
+                        .cookie(new Cookie(ReplicaStickinessFilter.COOKIE_NAME, "1")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Reading a just created device, not yet on the replica, from the primary")
+    void createDevice_readYourWrites() throws Exception {
+        MockHttpServletResponse created = mockMvc.perform(post(DEVICE_CONTROLLER_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONObject()
+                                .put("name", "deviceName")
+                                .put("brand", "brand-" + UUID.randomUUID())
+                                .toString()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse();
+        String id = new JSONObject(created.getContentAsString()).getString("id");
+
+        assertThat(created.getHeader(HttpHeaders.SET_COOKIE))
+                .startsWith(ReplicaStickinessFilter.COOKIE_NAME + "=1")
+                .contains("Max-Age=5");
+        mockMvc.perform(get(DEVICE_CONTROLLER_PATH + "/" + id)
+                        .cookie(new Cookie(ReplicaStickinessFilter.COOKIE_NAME, "1")))
+                .andExpect(status().isOk());
+        // Missing on the replica, so looked up again on the primary
+        mockMvc.perform(get(DEVICE_CONTROLLER_PATH + "/" + id))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Looking up devices in batch does not pin the client to the primary")
+    void lookupDevices_notSticky() throws Exception {
+        UUID id = insertOnReplicaOnly("deviceName", "brand-" + UUID.randomUUID());
+
+        mockMvc.perform(post(DEVICE_CONTROLLER_PATH + "/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONArray().put(id.toString()).toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE));
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.uziskull.restdbservice.controller;
+
+import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.service.DeviceService;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SerializedResponseFilterTest {
+
+    private static final String DEVICE_CONTROLLER_PATH = "/api/v1/devices";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @SpyBean
+    private DeviceService deviceService;
+
+    private static String uniqueBrand() {
+        return "brand-" + UUID.randomUUID();
+    }
+
+    private DeviceResponse createDevice(String name, String brand) {
+        DeviceRequest deviceRequest = new DeviceRequest();
+        deviceRequest.setName(name);
+        deviceRequest.setBrand(brand);
+        return deviceService.addDevice(deviceRequest);
+    }
+
+    private MockHttpServletResponse getDevice(UUID id) throws Exception {
+        return mockMvc.perform(get(DEVICE_CONTROLLER_PATH + "/" + id)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse();
+    }
+
+    @Test
+    @DisplayName("Serving a device again from its serialized response, headers included")
+    void getDevice_servedFromCache() throws Exception {
+        UUID id = createDevice("deviceName", uniqueBrand()).getId();
+
+        MockHttpServletResponse first = getDevice(id);
+        MockHttpServletResponse second = getDevice(id);
+
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+        assertThat(second.getContentType()).isEqualTo(first.getContentType());
+        assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo("\"0\"");
+        assertThat(first.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT);
+        assertThat(second.getHeaderNames()).containsExactlyInAnyOrderElementsOf(first.getHeaderNames());
+        for (String name : first.getHeaderNames()) {
+            assertThat(second.getHeaders(name)).as(name).isEqualTo(first.getHeaders(name));
+        }
+        MockHttpServletResponse notModified = mockMvc.perform(get(DEVICE_CONTROLLER_PATH + "/" + id)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andReturn().getResponse();
+        assertThat(notModified.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT);
+        verify(deviceService, times(1)).getDeviceByIdentifier(id);
+
+        String plain = mockMvc.perform(get(DEVICE_CONTROLLER_PATH + "/" + id)
+                        .accept(DeviceController.PLAIN_JSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(new JSONObject(plain).has("_links")).isFalse();
+        verify(deviceService, times(2)).getDeviceByIdentifier(id);
+    }
+
+    @Test
+    @DisplayName("Invalidating a serialized device on update and delete")
+    void getDevice_invalidatedOnWrites() throws Exception {
+        UUID id = createDevice("deviceName", uniqueBrand()).getId();
+        getDevice(id);
+
+        mockMvc.perform(put(DEVICE_CONTROLLER_PATH + "/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new JSONObject().put("name", "newName").toString()))
+                .andExpect(status().isOk());
+        MockHttpServletResponse updated = getDevice(id);
+        assertThat(new JSONObject(updated.getContentAsString()).get("name")).isEqualTo("newName");
+        assertThat(updated.getHeader(HttpHeaders.ETAG)).isEqualTo("\"1\"");
+
+        mockMvc.perform(delete(DEVICE_CONTROLLER_PATH + "/" + id))
+                .andExpect(status().isNoContent());
+        assertThat(getDevice(id).getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    @DisplayName("Gzipping a serialized brand listing and invalidating it on insert")
+    void getDevicesByBrand_gzipped() throws Exception {
+        String brand = uniqueBrand();
+        for (int i = 0; i < 10; i++) {
+            createDevice("device" + i, brand);
+        }
+        String requestPath = DEVICE_CONTROLLER_PATH + "/brand/" + brand;
+
+        byte[] identity = mockMvc.perform(get(requestPath).param("size", "20"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        MockHttpServletResponse gzipped = mockMvc.perform(get(requestPath).param("size", "20")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andReturn().getResponse();
+
+        assertThat(gzipped.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzipped.getHeaders(HttpHeaders.VARY))
+                .containsExactlyInAnyOrder(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        try (GZIPInputStream inputStream =
+                     new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+            assertThat(inputStream.readAllBytes()).isEqualTo(identity);
+        }
+        verify(deviceService, times(1)).searchDeviceByBrand(eq(brand), any(Pageable.class));
+
+        createDevice("device10", brand);
+        String listing = mockMvc.perform(get(requestPath).param("size", "20"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(new JSONObject(listing).getJSONObject("page").get("totalElements")).isEqualTo(11);
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.uziskull.restdbservice.datasource;
+
+import com.github.uziskull.restdbservice.config.DataSourceConfig;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.*;
+
+class ConnectionLimitingDataSourceTest {
+
+    @Test
+    @DisplayName("Connections beyond the limit wait, and time out, until one is closed")
+    void getConnection_limited() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection targetConnection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(targetConnection);
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1,
+                Duration.ofMillis(50));
+
+        Connection connection = dataSource.getConnection();
+        assertThatExceptionOfType(SQLTransientConnectionException.class)
+                .isThrownBy(dataSource::getConnection);
+
+        connection.close();
+        connection.close();
+        Connection secondConnection = dataSource.getConnection();
+        assertThatExceptionOfType(SQLTransientConnectionException.class)
+                .isThrownBy(dataSource::getConnection);
+        secondConnection.close();
+
+        verify(target, times(2)).getConnection();
+        verify(targetConnection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("A failure to obtain a connection gives its permit back")
+    void getConnection_failureReleases() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("down"))
+                .thenReturn(mock(Connection.class));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1,
+                Duration.ofMillis(50));
+
+        assertThatExceptionOfType(SQLTransientConnectionException.class)
+                .isThrownBy(dataSource::getConnection)
+                .withMessage("down");
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Closing the limiter closes the pool behind it")
+    void close_closesTarget() throws Exception {
+        DataSource target = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+
+        new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(50)).close();
+
+        verify((AutoCloseable) target).close();
+    }
+
+    @Test
+    @DisplayName("The limiter is only put in front of the pool along with virtual threads, unless configured")
+    @SuppressWarnings("unchecked")
+    void connectionLimiterPostProcessor_followsVirtualThreads() {
+        DataSource target = mock(DataSource.class);
+        DeviceProperties deviceProperties = new DeviceProperties();
+        ObjectProvider<DeviceProperties> propertiesProvider = mock(ObjectProvider.class);
+        when(propertiesProvider.getObject()).thenReturn(deviceProperties);
+        BeanPostProcessor platformThreads = DataSourceConfig.connectionLimiterPostProcessor(propertiesProvider,
+                new MockEnvironment());
+        BeanPostProcessor virtualThreads = DataSourceConfig.connectionLimiterPostProcessor(propertiesProvider,
+                new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"));
+
+        assertThat(platformThreads.postProcessAfterInitialization(target, "dataSource")).isSameAs(target);
+        assertThat(virtualThreads.postProcessAfterInitialization(target, "dataSource"))
+                .isInstanceOf(ConnectionLimitingDataSource.class);
+
+        deviceProperties.getConnectionLimiter().setEnabled(false);
+        assertThat(virtualThreads.postProcessAfterInitialization(target, "dataSource")).isSameAs(target);
+        deviceProperties.getConnectionLimiter().setEnabled(true);
+        assertThat(platformThreads.postProcessAfterInitialization(target, "dataSource"))
+                .isInstanceOf(ConnectionLimitingDataSource.class);
+    }
+}
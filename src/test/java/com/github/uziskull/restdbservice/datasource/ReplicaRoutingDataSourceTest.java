@@ -0,0 +1,96 @@
+package com.github.uziskull.restdbservice.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DriverManagerDataSource replica;
+    private ReplicaRoutingDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    private static DriverManagerDataSource h2(String name) {
+        DriverManagerDataSource h2 = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(h2).execute("create table if not exists node as select '" + name + "' as name");
+        return h2;
+    }
+
+    @BeforeEach
+    void setUp() {
+        replica = spy(h2("replica"));
+        dataSource = new ReplicaRoutingDataSource(h2("primary"), Map.of("replica", replica),
+                Duration.ofMinutes(1), Duration.ofSeconds(1));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        dataSource.close();
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private String nodeOnReplica() {
+        return ReadRouting.onReplica((Supplier<String>) this::node);
+    }
+
+    @Test
+    @DisplayName("Only reads marked for a replica, and not pinned to the primary, go to the replica")
+    void getConnection_routed() {
+        assertThat(node()).isEqualTo("primary");
+        assertThat(nodeOnReplica()).isEqualTo("replica");
+
+        ReadRouting.pinToPrimary();
+        try {
+            assertThat(nodeOnReplica()).isEqualTo("primary");
+        } finally {
+            ReadRouting.unpin();
+        }
+        assertThat(nodeOnReplica()).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("A failing replica is skipped for the primary until its health check passes")
+    void getConnection_failover() throws Exception {
+        doThrow(new SQLException("down")).when(replica).getConnection();
+
+        assertThat(nodeOnReplica()).isEqualTo("primary");
+        assertThat(nodeOnReplica()).isEqualTo("primary");
+        verify(replica, times(1)).getConnection();
+
+        dataSource.checkHealth();
+        assertThat(nodeOnReplica()).isEqualTo("primary");
+
+        doCallRealMethod().when(replica).getConnection();
+        dataSource.checkHealth();
+        assertThat(nodeOnReplica()).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("Closing the routing datasource closes the replica pools and the primary one")
+    void close_closesEveryPool() throws Exception {
+        DataSource primary = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+        DataSource closeableReplica = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+
+        new ReplicaRoutingDataSource(primary, Map.of("replica", closeableReplica), Duration.ofMinutes(1),
+                Duration.ofSeconds(1)).close();
+
+        verify((AutoCloseable) primary).close();
+        verify((AutoCloseable) closeableReplica).close();
+    }
+}
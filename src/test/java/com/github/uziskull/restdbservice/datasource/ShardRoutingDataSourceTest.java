@@ -0,0 +1,24 @@
+package com.github.uziskull.restdbservice.datasource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class ShardRoutingDataSourceTest {
+
+    @Test
+    @DisplayName("Closing the routing datasource closes the pool of every shard, the primary included")
+    void close_closesEveryShard() throws Exception {
+        DataSource primary = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+        DataSource shard = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+
+        new ShardRoutingDataSource(primary, List.of(shard)).close();
+
+        verify((AutoCloseable) primary).close();
+        verify((AutoCloseable) shard).close();
+    }
+}
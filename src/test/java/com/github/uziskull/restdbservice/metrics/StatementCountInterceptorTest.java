@@ -0,0 +1,64 @@
+package com.github.uziskull.restdbservice.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementCountInterceptorTest {
+
+    @Test
+    @DisplayName("Statements issued while handling a request are recorded per endpoint")
+    void afterCompletion_recordsStatements() {
+        StatementCounter statementCounter = new StatementCounter();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StatementCountInterceptor interceptor = new StatementCountInterceptor(statementCounter, registry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/devices/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/devices/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        statementCounter.inspect("select 1");
+        interceptor.preHandle(request, response, new Object());
+        statementCounter.inspect("select 1");
+        statementCounter.inspect("update device set name = ?");
+        interceptor.afterCompletion(request, response, new Object(), null);
+        statementCounter.inspect("select 1");
+
+        assertThat(registry.get(StatementCountInterceptor.METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/api/v1/devices/{id}")
+                .summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Statements issued by the asynchronous part of a request are recorded with it")
+    void afterCompletion_recordsAsyncStatements() throws InterruptedException {
+        StatementCounter statementCounter = new StatementCounter();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StatementCountInterceptor interceptor = new StatementCountInterceptor(statementCounter, registry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/devices/export");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/devices/export");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        statementCounter.inspect("select count(*) from device");
+        Thread writer = new Thread(statementCounter.propagate(() -> {
+            statementCounter.inspect("select * from device");
+            statementCounter.inspect("select * from device");
+        }));
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+        statementCounter.inspect("select 1");
+        writer.start();
+        writer.join();
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertThat(registry.get(StatementCountInterceptor.METRIC_NAME)
+                .tag("uri", "/api/v1/devices/export")
+                .summary().totalAmount()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.uziskull.restdbservice.model.dao.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeviceShardKeyTest {
+
+    @Test
+    @DisplayName("Identifiers carry the shard of their device's name and brand")
+    void nextId_carriesShard() {
+        for (int i = 0; i < 1_000; i++) {
+            UUID id = DeviceShardKey.nextId(DeviceIdStrategy.TIME_ORDERED, "device" + i, "brand", 5);
+
+            assertThat(DeviceShardKey.shardOf(id, 5)).isEqualTo(DeviceShardKey.shardOf("device" + i, "brand", 5));
+            assertThat(id.version()).isEqualTo(7);
+            assertThat(id.variant()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("Devices are spread evenly across shards")
+    void shardOf_spread() {
+        Map<Integer, Long> devicesPerShard = IntStream.range(0, 40_000)
+                .mapToObj(i -> DeviceShardKey.shardOf("device" + i, "brand", 4))
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+        assertThat(devicesPerShard).containsOnlyKeys(0, 1, 2, 3)
+                .allSatisfy((shard, devices) -> assertThat(devices).isBetween(9_000L, 11_000L));
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.uziskull.restdbservice.model.dao.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedUuidGeneratorTest {
+
+    private static long timestampOf(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    @Test
+    @DisplayName("Generated identifiers are version 7 UUIDs carrying the current timestamp")
+    void next_versionAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuidGenerator.INSTANCE.next();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(timestampOf(uuid)).isBetween(before, System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    @DisplayName("Generated identifiers are strictly increasing within a single thread")
+    void next_monotonic() {
+        List<UUID> uuids = IntStream.range(0, 100_000)
+                .mapToObj(i -> TimeOrderedUuidGenerator.INSTANCE.next())
+                .toList();
+
+        for (int i = 1; i < uuids.size(); i++) {
+            assertThat(uuids.get(i).getMostSignificantBits())
+                    .isGreaterThan(uuids.get(i - 1).getMostSignificantBits());
+        }
+    }
+
+    @Test
+    @DisplayName("Generated identifiers are unique across threads")
+    void next_concurrent() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> IntStream.range(0, perThread)
+                        .mapToObj(i -> TimeOrderedUuidGenerator.INSTANCE.next())
+                        .toList()));
+            }
+            List<UUID> uuids = new ArrayList<>();
+            for (Future<List<UUID>> future : futures) {
+                uuids.addAll(future.get());
+            }
+
+            assertThat(uuids.stream().map(UUID::getMostSignificantBits).distinct().count())
+                    .isEqualTo((long) threads * perThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
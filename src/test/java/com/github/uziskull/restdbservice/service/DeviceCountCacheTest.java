@@ -0,0 +1,60 @@
+package com.github.uziskull.restdbservice.service;
+
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeviceCountCacheTest {
+
+    private static DeviceCountCache countCache(boolean enabled, Duration ttl) {
+        DeviceProperties deviceProperties = new DeviceProperties();
+        deviceProperties.getCountCache().setEnabled(enabled);
+        deviceProperties.getCountCache().setTtl(ttl);
+        return new DeviceCountCache(deviceProperties);
+    }
+
+    @Test
+    @DisplayName("Counting with the cache disabled always hits the counter")
+    void count_disabled() {
+        DeviceCountCache countCache = countCache(false, Duration.ofMinutes(1));
+        AtomicLong counterCalls = new AtomicLong();
+
+        countCache.countAll(counterCalls::incrementAndGet);
+        countCache.countAll(counterCalls::incrementAndGet);
+
+        assertThat(counterCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Counting with the cache enabled reuses the cached value until evicted")
+    void count_enabled() {
+        DeviceCountCache countCache = countCache(true, Duration.ofMinutes(1));
+        AtomicLong counterCalls = new AtomicLong();
+
+        assertThat(countCache.countByBrand("brand", counterCalls::incrementAndGet)).isEqualTo(1);
+        assertThat(countCache.countByBrand("brand", counterCalls::incrementAndGet)).isEqualTo(1);
+        assertThat(countCache.countByBrand("anotherBrand", counterCalls::incrementAndGet)).isEqualTo(2);
+
+        countCache.evictBrand("brand");
+
+        assertThat(countCache.countByBrand("brand", counterCalls::incrementAndGet)).isEqualTo(3);
+        assertThat(countCache.countByBrand("anotherBrand", counterCalls::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Counting with the cache enabled reloads the value once expired")
+    void count_expired() {
+        DeviceCountCache countCache = countCache(true, Duration.ZERO);
+        AtomicLong counterCalls = new AtomicLong();
+
+        countCache.countAll(counterCalls::incrementAndGet);
+        countCache.countAll(counterCalls::incrementAndGet);
+
+        assertThat(counterCalls.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.uziskull.restdbservice.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import com.github.uziskull.restdbservice.model.dto.BulkDeviceResult;
+import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.model.dto.ImportLineError;
+import com.github.uziskull.restdbservice.model.dto.ImportSummary;
+import com.github.uziskull.restdbservice.model.exception.DuplicateDeviceException;
+import com.github.uziskull.restdbservice.model.exception.MissingDeviceFieldsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class DeviceImportServiceTest {
+
+    private static final int CHUNK_SIZE = 3;
+
+    private DeviceService deviceService;
+    private DeviceImportService deviceImportService;
+
+    @BeforeEach
+    void setUp() {
+        deviceService = mock(DeviceService.class);
+        Set<String> existingNames = new HashSet<>();
+        when(deviceService.addDevices(anyList())).thenAnswer(i -> {
+            List<DeviceRequest> deviceRequests = i.getArgument(0);
+            return deviceRequests.stream()
+                    .map(dr -> {
+                        if (dr == null || dr.getName() == null || dr.getBrand() == null) {
+                            return BulkDeviceResult.failed(BulkDeviceResult.Status.INVALID,
+                                    new MissingDeviceFieldsException());
+                        }
+                        if (!existingNames.add(dr.getName())) {
+                            return BulkDeviceResult.failed(BulkDeviceResult.Status.DUPLICATE,
+                                    new DuplicateDeviceException());
+                        }
+                        return BulkDeviceResult.created(new DeviceResponse());
+                    })
+                    .toList();
+        });
+        DeviceProperties deviceProperties = new DeviceProperties();
+        deviceProperties.getBulk().setChunkSize(CHUNK_SIZE);
+        deviceImportService = new DeviceImportService(deviceService, deviceProperties,
+                new ObjectMapper().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+    }
+
+    private static ByteArrayInputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Importing devices, reporting duplicated and invalid lines")
+    void importDevices_mixed() throws Exception {
+        List<ImportLineError> errors = new ArrayList<>();
+
+        ImportSummary importSummary = deviceImportService.importDevices(ndjson(
+                "{\"name\":\"first\",\"brand\":\"brand\"}",
+                "",
+                "not json",
+                "{\"name\":\"first\",\"brand\":\"brand\"}",
+                "{\"name\":\"second\"}",
+                "{\"name\":\"third\",\"brand\":\"brand\",\"unknown\":1}",
+                "{\"name\":\"fourth\",\"brand\":\"brand\"}"), errors::add);
+
+        assertThat(importSummary.getInserted()).isEqualTo(2);
+        assertThat(importSummary.getDuplicate()).isEqualTo(1);
+        assertThat(importSummary.getInvalid()).isEqualTo(3);
+        assertThat(errors).map(ImportLineError::getLine).containsExactlyInAnyOrder(3L, 4L, 5L, 6L);
+        assertThat(errors).filteredOn(e -> e.getLine() == 4L)
+                .map(ImportLineError::getStatus)
+                .containsExactly(BulkDeviceResult.Status.DUPLICATE);
+    }
+
+    @Test
+    @DisplayName("Importing devices in fixed-size chunks")
+    void importDevices_chunks() throws Exception {
+        String[] lines = IntStream.range(0, 10)
+                .mapToObj(i -> "{\"name\":\"device" + i + "\",\"brand\":\"brand\"}")
+                .toArray(String[]::new);
+
+        ImportSummary importSummary = deviceImportService.importDevices(ndjson(lines), e -> {
+        });
+
+        assertThat(importSummary.getInserted()).isEqualTo(lines.length);
+        verify(deviceService, times(4)).addDevices(anyList());
+        verify(deviceService, never()).addDevices(argThat(chunk -> chunk.size() > CHUNK_SIZE));
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.uziskull.restdbservice.service;
+
+import com.github.uziskull.restdbservice.cache.DeviceSnapshot;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeviceReadCoalescerTest {
+
+    private static final UUID DEVICE_ID = UUID.randomUUID();
+    private static final Optional<DeviceSnapshot> DEVICE = Optional.of(
+            new DeviceSnapshot(DEVICE_ID, "deviceName", "deviceBrand", Instant.now(), 0L));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private DeviceReadCoalescer readCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        readCoalescer = new DeviceReadCoalescer(new DeviceProperties());
+        readCoalescer.bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Supplier<Optional<DeviceSnapshot>> blockingLoader(AtomicInteger loads, CountDownLatch release) {
+        return () -> {
+            loads.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return DEVICE;
+        };
+    }
+
+    private void awaitJoined(double joined) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("devices.reads.coalesced").tag("read", "device").functionCounter().count() < joined
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent reads of the same device share a single load")
+    void getDevice_coalesced() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Optional<DeviceSnapshot>>> reads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            reads.add(executor.submit(() -> readCoalescer.getDevice(DEVICE_ID, blockingLoader(loads, release))));
+        }
+
+        awaitJoined(7);
+        release.countDown();
+
+        for (Future<Optional<DeviceSnapshot>> read : reads) {
+            assertThat(read.get(10, TimeUnit.SECONDS)).isSameAs(DEVICE);
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(readCoalescer.getDevice(DEVICE_ID, blockingLoader(loads, release))).isSameAs(DEVICE);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Reads after an eviction don't join a load started before it")
+    void getDevice_evicted() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Optional<DeviceSnapshot>> staleRead =
+                executor.submit(() -> readCoalescer.getDevice(DEVICE_ID, blockingLoader(loads, release)));
+        while (loads.get() == 0) {
+            Thread.sleep(5);
+        }
+
+        readCoalescer.evictDevice(DEVICE_ID);
+
+        assertThat(readCoalescer.getDevice(DEVICE_ID, Optional::empty)).isEmpty();
+        release.countDown();
+        assertThat(staleRead.get(10, TimeUnit.SECONDS)).isSameAs(DEVICE);
+    }
+
+    @Test
+    @DisplayName("A failed load fails every read that joined it")
+    void getDevice_failed() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Optional<DeviceSnapshot>> leader = executor.submit(() -> readCoalescer.getDevice(DEVICE_ID, () -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("database down");
+        }));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        Future<Optional<DeviceSnapshot>> follower =
+                executor.submit(() -> readCoalescer.getDevice(DEVICE_ID, () -> DEVICE));
+
+        awaitJoined(1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.uziskull.restdbservice.service;
+
+import com.github.uziskull.restdbservice.model.dao.id.DeviceShardKey;
+import com.github.uziskull.restdbservice.model.dto.BulkDeviceResult;
+import com.github.uziskull.restdbservice.model.dto.CursorPage;
+import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
+import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
+import com.github.uziskull.restdbservice.model.exception.DeviceNotFoundException;
+import com.github.uziskull.restdbservice.model.exception.DeviceShardChangeException;
+import com.github.uziskull.restdbservice.model.exception.DeviceVersionMismatchException;
+import com.github.uziskull.restdbservice.model.exception.DuplicateDeviceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard-0;DB_CLOSE_DELAY=-1",
+        "devices.sharding.datasources[0].url=jdbc:h2:mem:shard-1;DB_CLOSE_DELAY=-1",
+        "devices.sharding.datasources[0].username=admin",
+        "devices.sharding.datasources[0].password=admin",
+        "devices.sharding.datasources[1].url=jdbc:h2:mem:shard-2;DB_CLOSE_DELAY=-1",
+        "devices.sharding.datasources[1].username=admin",
+        "devices.sharding.datasources[1].password=admin",
+        "devices.cache.enabled=false"
+})
+class DeviceServiceShardingTest {
+
+    private static final int SHARD_COUNT = 3;
+
+    @Autowired
+    private DeviceService deviceService;
+
+    private static String uniqueBrand() {
+        return "brand-" + UUID.randomUUID();
+    }
+
+    private static DeviceRequest deviceRequest(String name, String brand) {
+        DeviceRequest deviceRequest = new DeviceRequest();
+        deviceRequest.setName(name);
+        deviceRequest.setBrand(brand);
+        return deviceRequest;
+    }
+
+    private static long countOnShard(int shard, String brand) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:shard-" + shard + ";DB_CLOSE_DELAY=-1", "admin", "admin"));
+        return jdbcTemplate.queryForObject("select count(*) from device where brand = ?", Long.class, brand);
+    }
+
+    private static String nameOnShard(String prefix, int shard, String brand) {
+        return IntStream.iterate(0, i -> i + 1)
+                .mapToObj(i -> prefix + i)
+                .filter(name -> DeviceShardKey.shardOf(name, brand, SHARD_COUNT) == shard)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Spreading devices across shards and reading them back by identifier")
+    void addDevices_spreadAcrossShards() {
+        String brand = uniqueBrand();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ids.add(deviceService.addDevice(deviceRequest("device" + i, brand)).getId());
+        }
+        List<BulkDeviceResult> results = deviceService.addDevices(IntStream.range(25, 60)
+                .mapToObj(i -> deviceRequest("device" + i, brand))
+                .toList());
+        results.stream().filter(result -> result.getStatus() == BulkDeviceResult.Status.CREATED)
+                .forEach(result -> ids.add(result.getDevice().getId()));
+
+        assertThat(results).extracting(BulkDeviceResult::getStatus)
+                .containsOnly(BulkDeviceResult.Status.CREATED, BulkDeviceResult.Status.DUPLICATE)
+                .filteredOn(status -> status == BulkDeviceResult.Status.DUPLICATE).hasSize(5);
+        List<Long> devicesPerShard = IntStream.range(0, SHARD_COUNT)
+                .mapToObj(shard -> countOnShard(shard, brand))
+                .toList();
+        assertThat(devicesPerShard).allSatisfy(count -> assertThat(count).isPositive());
+        assertThat(devicesPerShard.stream().mapToLong(Long::longValue).sum()).isEqualTo(60);
+        assertThat(ids).hasSize(60)
+                .allSatisfy(id -> assertThat(deviceService.getDeviceByIdentifier(id).getBrand()).isEqualTo(brand));
+        assertThat(deviceService.lookupDevices(ids).getDevices()).hasSize(60);
+        assertThatThrownBy(() -> deviceService.addDevice(deviceRequest("device7", brand)))
+                .isInstanceOf(DuplicateDeviceException.class);
+    }
+
+    @Test
+    @DisplayName("Merging the listings of every shard into a single order")
+    void searchDeviceByBrand_merged() {
+        String brand = uniqueBrand();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 24; i >= 0; i--) {
+            ids.add(deviceService.addDevice(deviceRequest("device%02d".formatted(i), brand)).getId());
+        }
+
+        Page<DeviceResponse> page = deviceService.searchDeviceByBrand(brand, PageRequest.of(1, 10, Sort.by("name")));
+        assertThat(page.getTotalElements()).isEqualTo(25);
+        assertThat(page.getContent()).extracting(DeviceResponse::getName)
+                .containsExactlyElementsOf(IntStream.range(10, 20).mapToObj("device%02d"::formatted).toList());
+        assertThat(deviceService.sliceDevicesByBrand(brand, PageRequest.of(2, 10, Sort.by("name").descending())))
+                .extracting(DeviceResponse::getName)
+                .containsExactly("device04", "device03", "device02", "device01", "device00");
+
+        List<UUID> scrolled = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<DeviceResponse> cursorPage = deviceService.scrollDevicesByBrand(brand, cursor, 7);
+            cursorPage.getContent().forEach(device -> scrolled.add(device.getId()));
+            cursor = cursorPage.getNextCursor();
+        } while (cursor != null);
+        assertThat(scrolled).containsExactlyElementsOf(ids);
+
+        List<UUID> exported = new ArrayList<>();
+        deviceService.exportDevices(brand, device -> exported.add(device.getId()));
+        assertThat(exported).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    @Test
+    @DisplayName("Updating and deleting devices on their shard, without moving them to another one")
+    void updateDevice_onOwningShard() {
+        String brand = uniqueBrand();
+        UUID id = deviceService.addDevice(deviceRequest(nameOnShard("device", 1, brand), brand)).getId();
+
+        DeviceResponse updated = deviceService.updateDevice(id,
+                deviceRequest(nameOnShard("renamed", 1, brand), null));
+        assertThat(updated.getVersion()).isEqualTo(1);
+        assertThat(updated.getBrand()).isEqualTo(brand);
+        assertThat(countOnShard(1, brand)).isEqualTo(1);
+        assertThatThrownBy(() -> deviceService.updateDevice(id,
+                deviceRequest(nameOnShard("stale", 1, brand), null), 0L))
+                .isInstanceOf(DeviceVersionMismatchException.class);
+        assertThatThrownBy(() -> deviceService.updateDevice(id, deviceRequest(nameOnShard("moved", 2, brand), null)))
+                .isInstanceOf(DeviceShardChangeException.class);
+        assertThat(deviceService.getDeviceByIdentifier(id).getName()).isEqualTo(updated.getName());
+
+        deviceService.deleteDevice(id);
+        assertThatThrownBy(() -> deviceService.getDeviceByIdentifier(id)).isInstanceOf(DeviceNotFoundException.class);
+        assertThat(countOnShard(1, brand)).isZero();
+    }
+}
@@ -1,33 +1,50 @@
 package com.github.uziskull.restdbservice.service;
 
+import com.github.uziskull.restdbservice.cache.DeviceCache;
+import com.github.uziskull.restdbservice.config.CacheConfig;
+import com.github.uziskull.restdbservice.config.DeviceProperties;
 import com.github.uziskull.restdbservice.model.dao.DeviceDAO;
+import com.github.uziskull.restdbservice.model.dto.BrandMatch;
+import com.github.uziskull.restdbservice.model.dto.BulkDeviceResult;
+import com.github.uziskull.restdbservice.model.dto.CursorPage;
+import com.github.uziskull.restdbservice.model.dto.DeviceLookupResult;
 import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
 import com.github.uziskull.restdbservice.model.dto.DeviceResponse;
 import com.github.uziskull.restdbservice.model.exception.DeviceNotFoundException;
+import com.github.uziskull.restdbservice.model.exception.DeviceVersionMismatchException;
 import com.github.uziskull.restdbservice.model.exception.DuplicateDeviceException;
+import com.github.uziskull.restdbservice.model.exception.InvalidCursorException;
 import com.github.uziskull.restdbservice.model.exception.MissingDeviceFieldsException;
+import com.github.uziskull.restdbservice.model.exception.TooManyDevicesException;
 import com.github.uziskull.restdbservice.repository.DeviceRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 
 @DataJpaTest
-@Import({DeviceService.class})
+@Import({DeviceService.class, DeviceCountCache.class, DeviceReadCoalescer.class, DeviceReadRouter.class,
+        DeviceShards.class, DeviceCache.class, CacheConfig.class})
+@EnableConfigurationProperties(DeviceProperties.class)
 class DeviceServiceTest {
 
     private static final String DEVICE_NAME = "deviceName";
@@ -37,6 +54,20 @@ class DeviceServiceTest {
     private DeviceService deviceService;
     @Autowired
     private DeviceRepository deviceRepository;
+    @Autowired
+    private DeviceCache deviceCache;
+
+    @AfterEach
+    void clearCache() {
+        deviceCache.evictAll();
+    }
+
+    private static DeviceRequest deviceRequest(String name, String brand) {
+        DeviceRequest deviceRequest = new DeviceRequest();
+        deviceRequest.setName(name);
+        deviceRequest.setBrand(brand);
+        return deviceRequest;
+    }
 
     private DeviceDAO insertMockDevice(String name, String brand) {
         DeviceDAO deviceDAO = new DeviceDAO();
@@ -84,6 +115,47 @@ class DeviceServiceTest {
                 .isThrownBy(() -> deviceService.addDevice(deviceRequest));
     }
 
+    @Test
+    @DisplayName("Adding devices in bulk, with duplicated and invalid entries")
+    void addDevices_mixed() {
+        insertMockDevice(DEVICE_NAME, DEVICE_BRAND);
+
+        List<BulkDeviceResult> results = deviceService.addDevices(List.of(
+                deviceRequest(DEVICE_NAME + 1, DEVICE_BRAND),
+                deviceRequest(DEVICE_NAME, DEVICE_BRAND),
+                deviceRequest(DEVICE_NAME + 1, DEVICE_BRAND),
+                deviceRequest(DEVICE_NAME + 2, null),
+                deviceRequest(DEVICE_NAME, "anotherBrand")));
+
+        assertThat(results).map(BulkDeviceResult::getStatus).containsExactly(
+                BulkDeviceResult.Status.CREATED,
+                BulkDeviceResult.Status.DUPLICATE,
+                BulkDeviceResult.Status.DUPLICATE,
+                BulkDeviceResult.Status.INVALID,
+                BulkDeviceResult.Status.CREATED);
+        assertThat(results.get(0).getDevice().getId()).isNotNull();
+        assertThat(results.get(4).getDevice().getBrand()).isEqualTo("anotherBrand");
+        assertThat(results.get(1).getError().getDescription())
+                .isEqualTo(new DuplicateDeviceException().getMessage());
+        assertThat(deviceRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Adding devices in bulk, spanning several chunks")
+    void addDevices_severalChunks() {
+        List<DeviceRequest> deviceRequests = IntStream.range(0, 1_200)
+                .mapToObj(i -> deviceRequest(DEVICE_NAME + i, DEVICE_BRAND))
+                .toList();
+
+        List<BulkDeviceResult> results = deviceService.addDevices(deviceRequests);
+
+        assertThat(results).hasSize(deviceRequests.size())
+                .allMatch(result -> result.getStatus() == BulkDeviceResult.Status.CREATED);
+        assertThat(results).map(result -> result.getDevice().getName())
+                .containsExactlyElementsOf(deviceRequests.stream().map(DeviceRequest::getName).toList());
+        assertThat(deviceRepository.count()).isEqualTo(deviceRequests.size());
+    }
+
     @Test
     @DisplayName("Getting a device by its identifier")
     void getDeviceByIdentifier_successful() {
@@ -95,6 +167,41 @@ class DeviceServiceTest {
         assertThat(deviceResponse.getBrand()).isEqualTo(currentDeviceDAO.getBrand());
     }
 
+    @Test
+    @DisplayName("Getting a device by its identifier a second time is served from the cache")
+    void getDeviceByIdentifier_cached() {
+        DeviceDAO currentDeviceDAO = insertMockDevice(DEVICE_NAME, DEVICE_BRAND);
+        deviceService.getDeviceByIdentifier(currentDeviceDAO.getId());
+
+        deviceRepository.deleteById(currentDeviceDAO.getId());
+
+        assertThat(deviceService.getDeviceByIdentifier(currentDeviceDAO.getId()).getName()).isEqualTo(DEVICE_NAME);
+    }
+
+    @Test
+    @DisplayName("Getting a device by its identifier after updating it")
+    void getDeviceByIdentifier_afterUpdate() {
+        DeviceDAO currentDeviceDAO = insertMockDevice(DEVICE_NAME, DEVICE_BRAND);
+        deviceService.getDeviceByIdentifier(currentDeviceDAO.getId());
+
+        deviceService.updateDevice(currentDeviceDAO.getId(), deviceRequest("differentName", null));
+
+        assertThat(deviceService.getDeviceByIdentifier(currentDeviceDAO.getId()).getName())
+                .isEqualTo("differentName");
+    }
+
+    @Test
+    @DisplayName("Getting a device by its identifier after deleting it")
+    void getDeviceByIdentifier_afterDelete() {
+        DeviceDAO currentDeviceDAO = insertMockDevice(DEVICE_NAME, DEVICE_BRAND);
+        deviceService.getDeviceByIdentifier(currentDeviceDAO.getId());
+
+        deviceService.deleteDevice(currentDeviceDAO.getId());
+
+        assertThatExceptionOfType(DeviceNotFoundException.class)
+                .isThrownBy(() -> deviceService.getDeviceByIdentifier(currentDeviceDAO.getId()));
+    }
+
     @Test
     @DisplayName("Getting a device by a non-existent identifier")
     void getDeviceByIdentifier_wrongId() {
@@ -102,6 +209,35 @@ class DeviceServiceTest {
                 .isThrownBy(() -> deviceService.getDeviceByIdentifier(UUID.randomUUID()));
     }
 
+    @Test
+    @DisplayName("Looking up devices by their identifiers, in request order and reporting the missing ones")
+    void lookupDevices() {
+        DeviceDAO firstDeviceDAO = insertMockDevice(DEVICE_NAME + 1, DEVICE_BRAND);
+        DeviceDAO secondDeviceDAO = insertMockDevice(DEVICE_NAME + 2, DEVICE_BRAND);
+        DeviceDAO cachedDeviceDAO = insertMockDevice(DEVICE_NAME + 3, DEVICE_BRAND);
+        deviceService.getDeviceByIdentifier(cachedDeviceDAO.getId());
+        deviceRepository.deleteById(cachedDeviceDAO.getId());
+        UUID missingId = UUID.randomUUID();
+
+        DeviceLookupResult result = deviceService.lookupDevices(List.of(secondDeviceDAO.getId(), missingId,
+                cachedDeviceDAO.getId(), firstDeviceDAO.getId(), secondDeviceDAO.getId()));
+
+        assertThat(result.getDevices()).map(DeviceResponse::getId).containsExactly(
+                secondDeviceDAO.getId(), cachedDeviceDAO.getId(), firstDeviceDAO.getId());
+        assertThat(result.getDevices()).map(DeviceResponse::getName).containsExactly(
+                DEVICE_NAME + 2, DEVICE_NAME + 3, DEVICE_NAME + 1);
+        assertThat(result.getMissing()).containsExactly(missingId);
+    }
+
+    @Test
+    @DisplayName("Looking up more devices than allowed in a single request")
+    void lookupDevices_tooMany() {
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(10_001).toList();
+
+        assertThatExceptionOfType(TooManyDevicesException.class)
+                .isThrownBy(() -> deviceService.lookupDevices(ids));
+    }
+
     @Test
     @DisplayName("Listing all available devices")
     void listAllDevices() {
@@ -123,6 +259,40 @@ class DeviceServiceTest {
         assertThat(deviceResponses).isEmpty();
     }
 
+    @Test
+    @DisplayName("Listing all available devices, without a total count")
+    void sliceAllDevices() {
+        List<DeviceDAO> deviceList = IntStream.range(0, 10)
+                .mapToObj(i -> insertMockDevice(DEVICE_NAME + i, DEVICE_BRAND))
+                .toList();
+
+        Slice<DeviceResponse> firstSlice = deviceService.sliceAllDevices(Pageable.ofSize(6));
+        Slice<DeviceResponse> lastSlice = deviceService.sliceAllDevices(firstSlice.nextPageable());
+
+        assertThat(firstSlice.getContent()).hasSize(6);
+        assertThat(firstSlice.hasNext()).isTrue();
+        assertThat(lastSlice.getContent()).hasSize(deviceList.size() - 6);
+        assertThat(lastSlice.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Exporting all available devices, and devices from a certain brand")
+    void exportDevices() {
+        List<DeviceDAO> deviceList = IntStream.range(0, 10)
+                .mapToObj(i -> insertMockDevice(DEVICE_NAME + i, i % 2 == 0 ? DEVICE_BRAND : "anotherBrand"))
+                .toList();
+
+        List<DeviceResponse> exportedDevices = new ArrayList<>();
+        deviceService.exportDevices(null, exportedDevices::add);
+        List<DeviceResponse> exportedBrandDevices = new ArrayList<>();
+        deviceService.exportDevices(DEVICE_BRAND, exportedBrandDevices::add);
+
+        assertThat(exportedDevices).map(DeviceResponse::getId)
+                .containsExactlyInAnyOrderElementsOf(deviceList.stream().map(DeviceDAO::getId).toList());
+        assertThat(exportedBrandDevices).hasSize(5)
+                .allMatch(dr -> DEVICE_BRAND.equals(dr.getBrand()));
+    }
+
     @Test
     @DisplayName("Updating a device successfully")
     void updateDevice_successful() {
@@ -139,6 +309,46 @@ class DeviceServiceTest {
         assertThat(deviceAfterUpdate.get().getName()).isEqualTo(newName);
     }
 
+    @Test
+    @DisplayName("Updating only the brand of a device keeps its name and its case-insensitive lookup in sync")
+    void updateDevice_partial() {
+        DeviceDAO currentDeviceDAO = insertMockDevice(DEVICE_NAME, DEVICE_BRAND);
+
+        DeviceResponse deviceResponse = deviceService.updateDevice(currentDeviceDAO.getId(),
+                deviceRequest(null, "NewBrand"));
+
+        assertThat(deviceResponse.getName()).isEqualTo(DEVICE_NAME);
+        assertThat(deviceResponse.getBrand()).isEqualTo("NewBrand");
+        assertThat(deviceResponse.getCreationTimestamp()).isNotNull();
+        assertThat(deviceResponse.getVersion()).isEqualTo(currentDeviceDAO.getVersion() + 1);
+        assertThat(deviceService.sliceDevicesByBrand("newbrand", BrandMatch.IGNORE_CASE, Pageable.ofSize(10)))
+                .extracting(DeviceResponse::getId)
+                .containsExactly(currentDeviceDAO.getId());
+    }
+
+    @Test
+    @DisplayName("Updating a cached device, whether its cached snapshot is still current or outdated")
+    void updateDevice_cached() {
+        DeviceDAO currentDeviceDAO = insertMockDevice(DEVICE_NAME, DEVICE_BRAND);
+        deviceService.getDeviceByIdentifier(currentDeviceDAO.getId());
+
+        DeviceResponse deviceResponse = deviceService.updateDevice(currentDeviceDAO.getId(),
+                deviceRequest("differentName", null));
+        assertThat(deviceResponse.getName()).isEqualTo("differentName");
+        assertThat(deviceResponse.getBrand()).isEqualTo(DEVICE_BRAND);
+        assertThat(deviceResponse.getCreationTimestamp()).isEqualTo(currentDeviceDAO.getCreationTimestamp());
+        assertThat(deviceResponse.getVersion()).isEqualTo(currentDeviceDAO.getVersion() + 1);
+
+        deviceRepository.updateDevice(currentDeviceDAO.getId(), null, "OtherBrand", "otherbrand", null);
+        deviceResponse = deviceService.updateDevice(currentDeviceDAO.getId(), deviceRequest("thirdName", null));
+        assertThat(deviceResponse.getName()).isEqualTo("thirdName");
+        assertThat(deviceResponse.getBrand()).isEqualTo("OtherBrand");
+        assertThat(deviceResponse.getVersion()).isEqualTo(currentDeviceDAO.getVersion() + 3);
+        assertThatExceptionOfType(DeviceVersionMismatchException.class)
+                .isThrownBy(() -> deviceService.updateDevice(currentDeviceDAO.getId(),
+                        deviceRequest("fourthName", null), currentDeviceDAO.getVersion() + 1));
+    }
+
     @Test
     @DisplayName("Updating a device with a non-existent identifier")
     void updateDevice_wrongId() {
@@ -148,7 +358,6 @@ class DeviceServiceTest {
 
     @Test
     @DisplayName("Updating a device to match another already existing one")
-    @Disabled("Weird quirk with JPA/Hibernate and the testing context")
     void updateDevice_duplicated() {
         DeviceDAO deviceFirst = insertMockDevice(DEVICE_NAME, DEVICE_BRAND);
         DeviceDAO deviceSecond = insertMockDevice("anotherName", DEVICE_BRAND);
@@ -170,9 +379,25 @@ class DeviceServiceTest {
         assertThat(deviceRepository.findById(currentDeviceDAO.getId())).isEmpty();
     }
 
+    @Test
+    @DisplayName("Updating or deleting a device with an outdated version")
+    void updateOrDeleteDevice_versionMismatch() {
+        DeviceDAO currentDeviceDAO = insertMockDevice(DEVICE_NAME, DEVICE_BRAND);
+        long version = currentDeviceDAO.getVersion();
+
+        assertThatExceptionOfType(DeviceVersionMismatchException.class)
+                .isThrownBy(() -> deviceService.updateDevice(currentDeviceDAO.getId(),
+                        deviceRequest("differentName", null), version + 1));
+        assertThatExceptionOfType(DeviceVersionMismatchException.class)
+                .isThrownBy(() -> deviceService.deleteDevice(currentDeviceDAO.getId(), version + 1));
+
+        deviceService.updateDevice(currentDeviceDAO.getId(), deviceRequest("differentName", null), version);
+        assertThat(deviceRepository.findById(currentDeviceDAO.getId()))
+                .hasValueSatisfying(d -> assertThat(d.getName()).isEqualTo("differentName"));
+    }
+
     @Test
     @DisplayName("Deleting a device with a non-existent identifier")
-    @Disabled("Weird quirk with JPA/Hibernate and the testing context")
     void deleteDevice_wrongId() {
         assertThatExceptionOfType(DeviceNotFoundException.class)
                 .isThrownBy(() -> deviceService.deleteDevice(UUID.randomUUID()));
@@ -192,6 +417,67 @@ class DeviceServiceTest {
         assertThat(deviceResponses).allMatch(dr -> rightBrandDeviceList.stream().anyMatch(dao -> dr.getId().equals(dao.getId())));
     }
 
+    @Test
+    @DisplayName("Listing devices from a certain brand is cached until a device of that brand is added")
+    void searchDeviceByBrand_cached() {
+        insertMockDevice(DEVICE_NAME, DEVICE_BRAND);
+        assertThat(deviceService.searchDeviceByBrand(DEVICE_BRAND, Pageable.ofSize(10)).getTotalElements())
+                .isEqualTo(1);
+
+        insertMockDevice(DEVICE_NAME + 1, DEVICE_BRAND);
+        assertThat(deviceService.searchDeviceByBrand(DEVICE_BRAND, Pageable.ofSize(10)).getTotalElements())
+                .isEqualTo(1);
+
+        deviceService.addDevice(deviceRequest(DEVICE_NAME + 2, DEVICE_BRAND));
+        Page<DeviceResponse> deviceResponses = deviceService.searchDeviceByBrand(DEVICE_BRAND, Pageable.ofSize(10));
+        assertThat(deviceResponses.getTotalElements()).isEqualTo(3);
+        assertThat(deviceResponses.getContent()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Listing all available devices from a certain brand, without a total count")
+    void sliceDevicesByBrand() {
+        IntStream.range(0, 10)
+                .forEach(i -> insertMockDevice(DEVICE_NAME + i, i % 2 == 0 ? DEVICE_BRAND : "anotherBrand"));
+
+        Slice<DeviceResponse> deviceResponses = deviceService.sliceDevicesByBrand(DEVICE_BRAND, Pageable.ofSize(10));
+
+        assertThat(deviceResponses.getContent()).hasSize(5);
+        assertThat(deviceResponses.hasNext()).isFalse();
+        assertThat(deviceResponses).allMatch(dr -> DEVICE_BRAND.equals(dr.getBrand()));
+    }
+
+    @Test
+    @DisplayName("Listing all available devices from a certain brand, ignoring case")
+    void sliceDevicesByBrand_ignoreCase() {
+        IntStream.range(0, 10)
+                .forEach(i -> insertMockDevice(DEVICE_NAME + i, i % 2 == 0 ? DEVICE_BRAND : DEVICE_BRAND.toUpperCase()));
+        insertMockDevice(DEVICE_NAME, "anotherBrand");
+
+        Slice<DeviceResponse> exactResponses = deviceService.sliceDevicesByBrand(DEVICE_BRAND.toUpperCase(),
+                BrandMatch.EXACT, Pageable.ofSize(20));
+        Slice<DeviceResponse> ignoreCaseResponses = deviceService.sliceDevicesByBrand(DEVICE_BRAND.toUpperCase(),
+                BrandMatch.IGNORE_CASE, Pageable.ofSize(20));
+
+        assertThat(exactResponses.getContent()).hasSize(5);
+        assertThat(ignoreCaseResponses.getContent()).hasSize(10);
+        assertThat(ignoreCaseResponses).allMatch(dr -> DEVICE_BRAND.equalsIgnoreCase(dr.getBrand()));
+    }
+
+    @Test
+    @DisplayName("Listing all available devices whose brand starts with a prefix")
+    void sliceDevicesByBrand_prefix() {
+        insertMockDevice(DEVICE_NAME, DEVICE_BRAND);
+        insertMockDevice(DEVICE_NAME, DEVICE_BRAND.toUpperCase() + "Pro");
+        insertMockDevice(DEVICE_NAME, "anotherBrand");
+
+        Slice<DeviceResponse> deviceResponses = deviceService.sliceDevicesByBrand("DEVICE", BrandMatch.PREFIX,
+                Pageable.ofSize(20));
+
+        assertThat(deviceResponses.getContent()).hasSize(2);
+        assertThat(deviceResponses).noneMatch(dr -> "anotherBrand".equals(dr.getBrand()));
+    }
+
     @Test
     @DisplayName("Listing all available devices from a certain brand, with none available")
     void searchDeviceByBrand_emptyBrand() {
@@ -203,4 +489,53 @@ class DeviceServiceTest {
 
         assertThat(deviceResponses).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Scrolling through all available devices with a cursor")
+    void scrollAllDevices_successful() {
+        List<DeviceDAO> deviceList = IntStream.range(0, 10)
+                .mapToObj(i -> insertMockDevice(DEVICE_NAME + i, DEVICE_BRAND))
+                .toList();
+
+        List<DeviceResponse> scrolledDevices = new ArrayList<>();
+        CursorPage<DeviceResponse> cursorPage = deviceService.scrollAllDevices(null, 4);
+        scrolledDevices.addAll(cursorPage.getContent());
+        while (cursorPage.hasNext()) {
+            assertThat(cursorPage.getContent()).hasSize(4);
+            cursorPage = deviceService.scrollAllDevices(cursorPage.getNextCursor(), 4);
+            scrolledDevices.addAll(cursorPage.getContent());
+        }
+
+        assertThat(scrolledDevices).hasSize(deviceList.size());
+        assertThat(scrolledDevices).map(DeviceResponse::getId)
+                .containsExactlyInAnyOrderElementsOf(deviceList.stream().map(DeviceDAO::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Scrolling through all available devices with an invalid cursor")
+    void scrollAllDevices_invalidCursor() {
+        assertThatExceptionOfType(InvalidCursorException.class)
+                .isThrownBy(() -> deviceService.scrollAllDevices("invalidCursor", 10));
+    }
+
+    @Test
+    @DisplayName("Scrolling through all available devices from a certain brand with a cursor")
+    void scrollDevicesByBrand_successful() {
+        List<DeviceDAO> rightBrandDeviceList = IntStream.range(0, 10)
+                .mapToObj(i -> insertMockDevice(DEVICE_NAME + i, i % 2 == 0 ? DEVICE_BRAND : "anotherBrand"))
+                .filter(d -> DEVICE_BRAND.equals(d.getBrand()))
+                .toList();
+
+        CursorPage<DeviceResponse> firstPage = deviceService.scrollDevicesByBrand(DEVICE_BRAND, "", 3);
+        CursorPage<DeviceResponse> secondPage = deviceService.scrollDevicesByBrand(DEVICE_BRAND,
+                firstPage.getNextCursor(), 3);
+
+        assertThat(firstPage.getContent()).hasSize(3);
+        assertThat(secondPage.getContent()).hasSize(2);
+        assertThat(secondPage.hasNext()).isFalse();
+        assertThat(secondPage.getContent()).allMatch(dr -> DEVICE_BRAND.equals(dr.getBrand()));
+        assertThat(rightBrandDeviceList).map(DeviceDAO::getId)
+                .containsAll(firstPage.getContent().stream().map(DeviceResponse::getId).toList())
+                .containsAll(secondPage.getContent().stream().map(DeviceResponse::getId).toList());
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.uziskull.restdbservice.service;
+
+import com.github.uziskull.restdbservice.config.DeviceProperties;
+import com.github.uziskull.restdbservice.model.dto.DeviceRequest;
+import com.github.uziskull.restdbservice.model.dto.DeviceWriteStatus;
+import com.github.uziskull.restdbservice.model.exception.DeviceNotFoundException;
+import com.github.uziskull.restdbservice.model.exception.DeviceQueueFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@SpringBootTest
+class DeviceWriteBehindServiceTest {
+
+    @Autowired
+    private DeviceService deviceService;
+
+    private DeviceWriteBehindService writeBehindService;
+
+    @AfterEach
+    void stop() {
+        writeBehindService.stop();
+    }
+
+    private DeviceWriteBehindService start(int flushSize, Duration flushInterval) {
+        DeviceProperties deviceProperties = new DeviceProperties();
+        deviceProperties.getWriteBehind().setFlushSize(flushSize);
+        deviceProperties.getWriteBehind().setFlushInterval(flushInterval);
+        writeBehindService = new DeviceWriteBehindService(deviceService, deviceProperties);
+        writeBehindService.start();
+        return writeBehindService;
+    }
+
+    private static DeviceRequest deviceRequest(String name, String brand) {
+        DeviceRequest deviceRequest = new DeviceRequest();
+        deviceRequest.setName(name);
+        deviceRequest.setBrand(brand);
+        return deviceRequest;
+    }
+
+    private static String uniqueBrand() {
+        return "brand-" + UUID.randomUUID();
+    }
+
+    private DeviceWriteStatus awaitWritten(UUID id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            DeviceWriteStatus status = writeBehindService.getWriteStatus(id);
+            if (status.getStatus() != DeviceWriteStatus.Status.PENDING) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        return writeBehindService.getWriteStatus(id);
+    }
+
+    @Test
+    @DisplayName("Queued devices are written once a full batch is queued, keeping their handed out identifiers")
+    void enqueue_written() throws Exception {
+        DeviceWriteBehindService writeBehindService = start(3, Duration.ofMinutes(1));
+        String brand = uniqueBrand();
+
+        List<DeviceWriteStatus> queued = IntStream.range(0, 3)
+                .mapToObj(i -> writeBehindService.enqueue(deviceRequest("device" + i, brand)))
+                .toList();
+
+        assertThat(queued).allMatch(status -> status.getStatus() == DeviceWriteStatus.Status.PENDING);
+        for (int i = 0; i < queued.size(); i++) {
+            UUID id = queued.get(i).getId();
+            assertThat(awaitWritten(id).getStatus()).isEqualTo(DeviceWriteStatus.Status.CREATED);
+            assertThat(deviceService.getDeviceByIdentifier(id).getName()).isEqualTo("device" + i);
+        }
+    }
+
+    @Test
+    @DisplayName("A partial batch is written only once the flush interval has passed")
+    void enqueue_writtenAfterInterval() throws Exception {
+        DeviceWriteBehindService writeBehindService = start(100, Duration.ofSeconds(1));
+        String brand = uniqueBrand();
+
+        List<UUID> ids = IntStream.range(0, 3)
+                .mapToObj(i -> writeBehindService.enqueue(deviceRequest("device" + i, brand)).getId())
+                .toList();
+        Thread.sleep(300);
+
+        assertThat(ids).allSatisfy(id -> {
+            assertThat(writeBehindService.getWriteStatus(id).getStatus()).isEqualTo(DeviceWriteStatus.Status.PENDING);
+            assertThatExceptionOfType(DeviceNotFoundException.class)
+                    .isThrownBy(() -> deviceService.getDeviceByIdentifier(id));
+        });
+        for (UUID id : ids) {
+            assertThat(awaitWritten(id).getStatus()).isEqualTo(DeviceWriteStatus.Status.CREATED);
+        }
+    }
+
+    @Test
+    @DisplayName("Devices still queued on stop are written, and duplicates reported, before rejecting new ones")
+    void stop_drained() throws Exception {
+        DeviceWriteBehindService writeBehindService = start(100, Duration.ofMillis(500));
+        String brand = uniqueBrand();
+        UUID id = writeBehindService.enqueue(deviceRequest("device", brand)).getId();
+        UUID duplicateId = writeBehindService.enqueue(deviceRequest("device", brand)).getId();
+        assertThatExceptionOfType(DeviceNotFoundException.class)
+                .isThrownBy(() -> deviceService.getDeviceByIdentifier(id));
+
+        writeBehindService.stop();
+
+        assertThat(writeBehindService.getWriteStatus(id).getStatus()).isEqualTo(DeviceWriteStatus.Status.CREATED);
+        assertThat(deviceService.getDeviceByIdentifier(id).getBrand()).isEqualTo(brand);
+        assertThat(writeBehindService.getWriteStatus(duplicateId).getStatus())
+                .isEqualTo(DeviceWriteStatus.Status.DUPLICATE);
+        assertThatExceptionOfType(DeviceQueueFullException.class)
+                .isThrownBy(() -> writeBehindService.enqueue(deviceRequest("another", brand)));
+    }
+}